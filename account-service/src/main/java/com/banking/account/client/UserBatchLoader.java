@@ -0,0 +1,140 @@
+package com.banking.account.client;
+
+import com.banking.account.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects single-user lookups into bulk calls, DataLoader style. The first id requested
+ * opens a window of window-micros. Every id requested before it closes, or until
+ * max-batch-size ids are waiting, goes out in one POST /api/users/batch. Ids user-service
+ * does not return complete as empty. A failed call fails every lookup in its batch.
+ */
+@Component
+public class UserBatchLoader {
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-client.batch.window-micros:2000}")
+    private long windowMicros;
+
+    @Value("${user-client.batch.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${user-client.batch.concurrency:4}")
+    private int concurrency;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<Optional<User>>> pending = new LinkedHashMap<>(); // guarded by lock
+    private boolean flushScheduled; // guarded by lock
+
+    private ScheduledExecutorService timer;
+    private ExecutorService fetchers;
+    private Counter calls;
+    private Counter requestedIds;
+
+    @PostConstruct
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+        fetchers = Executors.newFixedThreadPool(concurrency);
+        calls = Counter.builder("user.client.batch.calls")
+                .description("Bulk user lookups sent to user-service")
+                .register(meterRegistry);
+        requestedIds = Counter.builder("user.client.batch.ids")
+                .description("User ids requested through bulk lookups")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        fetchers.shutdown();
+    }
+
+    // Requests for an id already waiting in the current window share its future
+    public CompletableFuture<Optional<User>> load(Long id) {
+        Map<Long, CompletableFuture<Optional<User>>> full = null;
+        CompletableFuture<Optional<User>> result;
+        synchronized (lock) {
+            result = pending.get(id);
+            if (result != null) {
+                return result;
+            }
+            result = new CompletableFuture<>();
+            pending.put(id, result);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                timer.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return result;
+    }
+
+    private void flush() {
+        Map<Long, CompletableFuture<Optional<User>>> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private Map<Long, CompletableFuture<Optional<User>>> takePending() {
+        Map<Long, CompletableFuture<Optional<User>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<Optional<User>>> batch) {
+        try {
+            fetchers.execute(() -> fetch(batch));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e)); // shutting down
+        }
+    }
+
+    private void fetch(Map<Long, CompletableFuture<Optional<User>>> batch) {
+        calls.increment();
+        requestedIds.increment(batch.size());
+        try {
+            List<User> users = userServiceClient.getUsersByIds(new ArrayList<>(batch.keySet()));
+            Map<Long, User> byId = new HashMap<>();
+            for (User user : users) {
+                byId.put(user.getId(), user);
+            }
+            for (Map.Entry<Long, CompletableFuture<Optional<User>>> entry : batch.entrySet()) {
+                entry.getValue().complete(Optional.ofNullable(byId.get(entry.getKey())));
+            }
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.banking.account.client;
+
+import com.banking.account.model.User;
+import com.banking.account.model.UserChanges;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near-cache for user lookups against user-service.
+ *
+ * Entries live in LRU segments bounded by max-size in total and expire after ttl-ms.
+ * A user that does not exist is cached as such for the shorter negative-ttl-ms.
+ * Concurrent misses for the same id share one load. Misses for different ids are
+ * combined into bulk calls by UserBatchLoader. A poller reads the user-service change
+ * feed and evicts users that were created, updated or deleted. If it falls behind the
+ * feed, or user-service restarts, the whole cache is dropped.
+ */
+@Component
+public class UserCache {
+    private static final int SEGMENTS = 16; // power of two
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private UserBatchLoader userBatchLoader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-client.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${user-client.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${user-client.cache.negative-ttl-ms:30000}")
+    private long negativeTtlMs;
+
+    @Value("${user-client.cache.invalidation-poll-ms:1000}")
+    private long invalidationPollMs;
+
+    @SuppressWarnings("unchecked")
+    private final LinkedHashMap<Long, Entry>[] segments = new LinkedHashMap[SEGMENTS];
+    private final Map<Long, CompletableFuture<Optional<User>>> inFlight = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a load that overlaps one is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ScheduledExecutorService poller;
+    private String feedEpoch; // only touched by the poller thread
+    private long feedSequence = -1;
+    private boolean feedFailing;
+
+    // user is null for a user that does not exist
+    private record Entry(User user, long expiresAtNanos) {}
+
+    @PostConstruct
+    public void start() {
+        int perSegment = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    return size() > perSegment;
+                }
+            };
+        }
+        Gauge.builder("user.cache.hit.ratio", this, UserCache::hitRatio)
+                .description("Share of user lookups answered from the near-cache")
+                .register(meterRegistry);
+        Gauge.builder("user.cache.size", this, UserCache::size)
+                .register(meterRegistry);
+
+        poller = Executors.newSingleThreadScheduledExecutor();
+        poller.scheduleWithFixedDelay(this::pollChanges, invalidationPollMs, invalidationPollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    // Empty when user-service has no such user; remote failures are thrown and not cached
+    public Optional<User> getUserById(Long id) {
+        return await(getUserByIdAsync(id));
+    }
+
+    // Start lookups for many ids before joining any of them, so the misses share bulk calls
+    public CompletableFuture<Optional<User>> getUserByIdAsync(Long id) {
+        Entry cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(Optional.ofNullable(cached.user()));
+        }
+        misses.increment();
+
+        CompletableFuture<Optional<User>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> loading = inFlight.putIfAbsent(id, mine);
+        if (loading != null) {
+            return loading;
+        }
+        long generation = invalidations.get();
+        userBatchLoader.load(id).whenComplete((user, error) -> {
+            if (error == null) {
+                store(id, user, generation);
+            }
+            inFlight.remove(id, mine);
+            if (error != null) {
+                mine.completeExceptionally(error);
+            } else {
+                mine.complete(user);
+            }
+        });
+        return mine;
+    }
+
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        LinkedHashMap<Long, Entry> segment = segmentOf(id);
+        synchronized (segment) {
+            segment.remove(id);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        for (LinkedHashMap<Long, Entry> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (LinkedHashMap<Long, Entry> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    // generation is the invalidation count when the load started
+    private void store(Long id, Optional<User> user, long generation) {
+        long ttl = user.isPresent() ? ttlMs : negativeTtlMs;
+        Entry entry = new Entry(user.orElse(null), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttl));
+        LinkedHashMap<Long, Entry> segment = segmentOf(id);
+        synchronized (segment) {
+            // Checked under the segment lock, so an invalidation cannot slip in between check and put
+            if (invalidations.get() == generation) {
+                segment.put(id, entry);
+            }
+        }
+    }
+
+    private Entry lookup(Long id) {
+        LinkedHashMap<Long, Entry> segment = segmentOf(id);
+        synchronized (segment) {
+            Entry entry = segment.get(id);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                segment.remove(id);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    // Joins a lookup, rethrowing the remote failure rather than a CompletionException
+    public static Optional<User> await(CompletableFuture<Optional<User>> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void pollChanges() {
+        try {
+            UserChanges changes = userServiceClient.getChanges(feedEpoch, feedSequence);
+            if (changes.isComplete()) {
+                for (Long id : changes.getUserIds()) {
+                    invalidate(id);
+                }
+            } else {
+                invalidateAll();
+            }
+            feedEpoch = changes.getEpoch();
+            feedSequence = changes.getLatestSequence();
+            if (feedFailing) {
+                feedFailing = false;
+                System.out.println("User change feed reachable again");
+            }
+        } catch (RuntimeException e) {
+            if (!feedFailing) {
+                feedFailing = true; // entries still expire by TTL while the feed is down
+                System.err.println("User change feed unavailable: " + e.getMessage());
+            }
+        }
+    }
+
+    private LinkedHashMap<Long, Entry> segmentOf(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L; // spread sequential ids across segments
+        return segments[(int) (h >>> 32) & (SEGMENTS - 1)];
+    }
+}
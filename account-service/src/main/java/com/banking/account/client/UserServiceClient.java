@@ -1,14 +1,28 @@
 package com.banking.account.client;
 
 import com.banking.account.model.User;
+import com.banking.account.model.UserChanges;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.Optional;
 
+// Prefer UserCache for lookups; it sits in front of this client
 @FeignClient(name = "user-service")
 public interface UserServiceClient {
     @GetMapping("/api/users/{id}")
     Optional<User> getUserById(@PathVariable("id") Long id);
+
+    // Unknown ids are left out of the response
+    @PostMapping("/api/users/batch")
+    List<User> getUsersByIds(@RequestBody List<Long> ids);
+
+    @GetMapping("/api/users/changes")
+    UserChanges getChanges(@RequestParam(value = "epoch", required = false) String epoch,
+                           @RequestParam("since") long since);
 }
@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+
 @Component
 public class DataInitializer implements CommandLineRunner {
 
@@ -14,9 +16,14 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        accountRepository.save(new Account(1L, 1L, "ACC1001", 5000.0, "SAVINGS"));
-        accountRepository.save(new Account(2L, 2L, "ACC1002", 3000.0, "CHECKING"));
-        accountRepository.save(new Account(3L, 3L, "ACC1003", 7000.0, "SAVINGS"));
+        if (accountRepository.count() > 0) {
+            System.out.println("Account service restored " + accountRepository.count() + " accounts, skipping seed data");
+            return;
+        }
+
+        accountRepository.save(new Account(1L, 1L, "ACC1001", new BigDecimal("5000.00"), "SAVINGS"));
+        accountRepository.save(new Account(2L, 2L, "ACC1002", new BigDecimal("3000.00"), "CHECKING"));
+        accountRepository.save(new Account(3L, 3L, "ACC1003", new BigDecimal("7000.00"), "SAVINGS"));
 
         System.out.println("Account service initialized with " + accountRepository.count() + " accounts");
     }
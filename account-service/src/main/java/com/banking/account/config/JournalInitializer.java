@@ -0,0 +1,88 @@
+package com.banking.account.config;
+
+import com.banking.account.journal.AccountCodec;
+import com.banking.account.model.Account;
+import com.banking.account.repository.AccountRepository;
+import com.banking.journal.RepositoryJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Restores AccountRepository from disk before DataInitializer runs and keeps it journaled
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalInitializer {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${journal.directory:data/account-service}")
+    private String directory;
+
+    @Value("${journal.region-size-mb:64}")
+    private int regionSizeMb;
+
+    @Value("${journal.flush-interval-ms:10}")
+    private long flushIntervalMs;
+
+    // When enabled, writes are acknowledged only after the fsync that covers them
+    @Value("${journal.group-commit.enabled:true}")
+    private boolean groupCommitEnabled;
+
+    @Value("${journal.group-commit.interval-micros:2000}")
+    private long groupCommitIntervalMicros;
+
+    @Value("${journal.group-commit.threshold-bytes:262144}")
+    private long groupCommitThresholdBytes;
+
+    @Value("${journal.snapshot-interval-ms:300000}")
+    private long snapshotIntervalMs;
+
+    private RepositoryJournal<Account> journal;
+    private ScheduledExecutorService snapshotter;
+
+    @PostConstruct
+    public void recover() throws IOException {
+        journal = new RepositoryJournal<>(Paths.get(directory), new AccountCodec(),
+                                          regionSizeMb * 1024 * 1024, flushIntervalMs);
+        if (groupCommitEnabled) {
+            journal.useGroupCommit(groupCommitIntervalMicros, groupCommitThresholdBytes, meterRegistry, "ledger");
+        }
+        journal.recover(accountRepository::restore, accountRepository::restoreDelete,
+                        accountRepository::restoreMovement);
+        accountRepository.attachJournal(journal);
+        System.out.println("Account journal recovered " + accountRepository.count() + " accounts from " + directory);
+
+        snapshotter = Executors.newSingleThreadScheduledExecutor();
+        snapshotter.scheduleWithFixedDelay(this::checkpoint, snapshotIntervalMs, snapshotIntervalMs,
+                                           TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        snapshotter.shutdown();
+        checkpoint();
+        journal.close();
+    }
+
+    private void checkpoint() {
+        try {
+            journal.checkpoint(accountRepository.snapshot(), accountRepository::movementMarkers);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Account snapshot failed: " + e.getMessage());
+        }
+    }
+}
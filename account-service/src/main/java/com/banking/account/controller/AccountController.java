@@ -1,32 +1,92 @@
 package com.banking.account.controller;
 
+import com.banking.account.exception.AccountNotFoundException;
+import com.banking.account.exception.DuplicateAccountNumberException;
+import com.banking.account.exception.InsufficientFundsException;
 import com.banking.account.model.Account;
+import com.banking.account.model.BalanceMovement;
+import com.banking.account.model.BalanceMovementResult;
+import com.banking.account.model.Money;
+import com.banking.account.model.User;
 import com.banking.account.service.AccountService;
+import com.banking.journal.JournalException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/accounts")
 @CrossOrigin(origins = "*")
 public class AccountController {
+    private static final String NEXT_AFTER_HEADER = "X-Next-After";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    private static final int MAX_OWNER_LOOKUPS = 1000;
 
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<Account> createAccount(@Valid @RequestBody Account account) {
-        return new ResponseEntity<>(accountService.createAccount(account), HttpStatus.CREATED);
+        try {
+            return new ResponseEntity<>(accountService.createAccount(account), HttpStatus.CREATED);
+        } catch (DuplicateAccountNumberException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
     }
 
+    // One keyset page in id order, limit accounts long (default DEFAULT_PAGE_SIZE, capped at
+    // MAX_PAGE_SIZE; a non-positive limit is rejected). When more may follow, the id to pass as after
+    // is sent in the X-Next-After header. /export streams every account.
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        return new ResponseEntity<>(accountService.getAllAccounts(), HttpStatus.OK);
+    public ResponseEntity<List<Account>> getAllAccounts(@RequestParam(required = false) Long after,
+                                                        @RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        List<Account> page = accountService.getAccountsPage(after, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.size() == size) {
+            headers.add(NEXT_AFTER_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return new ResponseEntity<>(page, headers, HttpStatus.OK);
+    }
+
+    // NDJSON export of every account in id order. Written a page at a time straight to the
+    // response, so memory use does not grow with the table.
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccounts() {
+        StreamingResponseBody body = out -> {
+            Long after = null;
+            List<Account> page;
+            while (!(page = accountService.getAccountsPage(after, EXPORT_PAGE_SIZE)).isEmpty()) {
+                for (Account item : page) {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                }
+                out.flush();
+                after = page.get(page.size() - 1).getId();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -48,12 +108,87 @@ public class AccountController {
                       .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping("/{id}/owner")
+    public ResponseEntity<User> getAccountOwner(@PathVariable Long id) {
+        try {
+            Optional<User> owner = accountService.getAccountOwner(id);
+            return owner.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                        .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // Owners for a list of accounts (e.g. ?ids=1,2,3), keyed by account id; unknown accounts are left out
+    @GetMapping("/owners")
+    public ResponseEntity<Map<Long, User>> getAccountOwners(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_OWNER_LOOKUPS) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(accountService.getAccountOwners(ids), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Account> updateAccount(@PathVariable Long id, @Valid @RequestBody Account account) {
         try {
             return new ResponseEntity<>(accountService.updateAccount(id, account), HttpStatus.OK);
+        } catch (AccountNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<BigDecimal> getBalance(@PathVariable Long id) {
+        Optional<Account> account = accountService.getAccountById(id);
+        return account.map(value -> new ResponseEntity<>(value.getBalance(), HttpStatus.OK))
+                      .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PostMapping("/{id}/credit")
+    public ResponseEntity<Account> credit(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        try {
+            return new ResponseEntity<>(accountService.credit(id, Money.toMinorUnits(amount)), HttpStatus.OK);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (AccountNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/{id}/debit")
+    public ResponseEntity<Account> debit(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        try {
+            return new ResponseEntity<>(accountService.debit(id, Money.toMinorUnits(amount)), HttpStatus.OK);
+        } catch (IllegalArgumentException | ArithmeticException | InsufficientFundsException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (AccountNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Results are per movement, in order; a movement with a movementId is applied at most once
+    @PostMapping("/movements/batch")
+    public ResponseEntity<List<BalanceMovementResult>> applyMovements(@RequestBody List<BalanceMovement> movements) {
+        try {
+            return new ResponseEntity<>(accountService.applyMovements(movements), HttpStatus.OK);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         }
     }
 
@@ -62,8 +197,12 @@ public class AccountController {
         try {
             accountService.deleteAccount(id);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        } catch (RuntimeException e) {
+        } catch (AccountNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 }
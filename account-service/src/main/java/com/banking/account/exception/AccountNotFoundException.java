@@ -0,0 +1,7 @@
+package com.banking.account.exception;
+
+public class AccountNotFoundException extends RuntimeException {
+    public AccountNotFoundException(Long accountId) {
+        super("Account not found with id: " + accountId);
+    }
+}
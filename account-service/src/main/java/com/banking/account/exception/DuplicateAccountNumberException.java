@@ -0,0 +1,8 @@
+package com.banking.account.exception;
+
+// Thrown when an account number already belongs to another account; surfaced as 409
+public class DuplicateAccountNumberException extends RuntimeException {
+    public DuplicateAccountNumberException(String accountNumber) {
+        super("Account with number " + accountNumber + " already exists");
+    }
+}
@@ -0,0 +1,7 @@
+package com.banking.account.exception;
+
+public class InsufficientFundsException extends RuntimeException {
+    public InsufficientFundsException(Long accountId) {
+        super("Insufficient funds in account with id: " + accountId);
+    }
+}
@@ -0,0 +1,35 @@
+package com.banking.account.journal;
+
+import com.banking.account.model.Account;
+import com.banking.journal.EntityCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class AccountCodec implements EntityCodec<Account> {
+
+    @Override
+    public void write(DataOutput out, Account account) throws IOException {
+        out.writeLong(account.getId());
+        EntityCodec.writeLong(out, account.getUserId());
+        EntityCodec.writeString(out, account.getAccountNumber());
+        out.writeLong(account.getBalanceMinorUnits());
+        EntityCodec.writeString(out, account.getAccountType());
+        EntityCodec.writeDateTime(out, account.getCreatedAt());
+        EntityCodec.writeDateTime(out, account.getUpdatedAt());
+    }
+
+    @Override
+    public Account read(DataInput in) throws IOException {
+        Account account = new Account();
+        account.setId(in.readLong());
+        account.setUserId(EntityCodec.readLong(in));
+        account.setAccountNumber(EntityCodec.readString(in));
+        account.setBalanceMinorUnits(in.readLong());
+        account.setAccountType(EntityCodec.readString(in));
+        account.setCreatedAt(EntityCodec.readDateTime(in));
+        account.setUpdatedAt(EntityCodec.readDateTime(in));
+        return account;
+    }
+}
@@ -1,7 +1,9 @@
 package com.banking.account.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class Account {
@@ -14,7 +16,7 @@ public class Account {
     private String accountNumber;
 
     @PositiveOrZero(message = "Balance must be non-negative")
-    private Double balance;
+    private volatile long balance; // minor units, see Money.SCALE
 
     private String accountType; // e.g., SAVINGS, CHECKING
     private LocalDateTime createdAt;
@@ -25,15 +27,26 @@ public class Account {
         this.updatedAt = LocalDateTime.now();
     }
 
-    public Account(Long id, Long userId, String accountNumber, Double balance, String accountType) {
+    public Account(Long id, Long userId, String accountNumber, BigDecimal balance, String accountType) {
         this();
         this.id = id;
         this.userId = userId;
         this.accountNumber = accountNumber;
-        this.balance = balance;
+        this.balance = Money.toMinorUnits(balance);
         this.accountType = accountType;
     }
 
+    // Copy for changing outside the repository; the stored instance is replaced only once the save succeeds
+    public Account(Account other) {
+        this.id = other.id;
+        this.userId = other.userId;
+        this.accountNumber = other.accountNumber;
+        this.balance = other.balance;
+        this.accountType = other.accountType;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -44,8 +57,12 @@ public class Account {
     public String getAccountNumber() { return accountNumber; }
     public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
 
-    public Double getBalance() { return balance; }
-    public void setBalance(Double balance) { this.balance = balance; }
+    public BigDecimal getBalance() { return Money.fromMinorUnits(balance); }
+    public void setBalance(BigDecimal balance) { this.balance = balance == null ? 0 : Money.toMinorUnits(balance); }
+
+    @JsonIgnore
+    public long getBalanceMinorUnits() { return balance; }
+    public void setBalanceMinorUnits(long balance) { this.balance = balance; }
 
     public String getAccountType() { return accountType; }
     public void setAccountType(String accountType) { this.accountType = accountType; }
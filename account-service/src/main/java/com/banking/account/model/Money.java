@@ -0,0 +1,27 @@
+package com.banking.account.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between decimal amounts (as seen in JSON and request params) and
+ * the fixed-point minor units balances are stored and computed in.
+ */
+public final class Money {
+    public static final int SCALE = 2; // minor units per major unit: cents
+
+    private Money() {
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount + " is not representable in minor units");
+        }
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -1,25 +1,117 @@
 package com.banking.account.repository;
 
+import com.banking.account.exception.DuplicateAccountNumberException;
 import com.banking.account.model.Account;
+import com.banking.journal.RepositoryJournal;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
 public class AccountRepository {
     private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private volatile RepositoryJournal<Account> journal; // set when durability is enabled
+
+    // Secondary indexes. Only mutated inside accounts.compute(id, ...), so writers
+    // for the same id are serialized by the primary map's bin lock. Account numbers are
+    // claimed with putIfAbsent, so uniqueness holds under concurrent creates.
+    private final Map<String, Long> accountNumberIndex = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> userIdIndex = new ConcurrentHashMap<>();
+    // Keys each id is currently indexed under; Account is mutable, so the old
+    // values cannot be read back from the instance being re-saved.
+    private final Map<Long, IndexKeys> indexedKeys = new ConcurrentHashMap<>();
+    // Ids in order, for keyset pagination. Added on every save, removed only on delete, so an
+    // account being re-saved never drops out of a page being read.
+    private final NavigableSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+
+    // Ids of keyed balance movements applied here, with the time they were applied (epoch millis).
+    // Journaled in the same record as the balance change, so after a restart a movement is known to
+    // be applied exactly when its effect on the balances survived. Expired by MovementRegistry.
+    private final Map<String, Long> appliedMovements = new ConcurrentHashMap<>();
+
+    private record IndexKeys(String accountNumber, Long userId) {}
 
     public Account save(Account account) {
         if (account.getId() == null) {
             account.setId(idGenerator.getAndIncrement());
+        } else {
+            // Seeded accounts carry explicit ids; never hand those ids out again
+            idGenerator.accumulateAndGet(account.getId() + 1, Math::max);
+        }
+        RepositoryJournal<Account> journal = this.journal;
+        if (journal == null) {
+            accounts.compute(account.getId(), (id, previous) -> {
+                index(id, account, true);
+                return account;
+            });
+        } else {
+            journal.mutate(() -> accounts.compute(account.getId(), (id, previous) -> {
+                String claimed = claimAccountNumber(id, account); // before logging, so a rejected duplicate is never journaled
+                try {
+                    journal.logUpsert(account);
+                } catch (RuntimeException e) {
+                    // The compute aborts and the stored account keeps its old number; give the new one back
+                    if (claimed != null) {
+                        accountNumberIndex.remove(claimed, id);
+                    }
+                    throw e;
+                }
+                index(id, account, true);
+                return account;
+            }));
         }
-        accounts.put(account.getId(), account);
         return account;
     }
 
+    // Saves several existing accounts as one journal record, so recovery applies all of them or
+    // none. Meant for balance movements: indexed fields must be unchanged, and the caller must
+    // hold AccountBalanceEngine's locks for every id, since the log append and the map updates
+    // are not one compute.
+    public void saveAll(List<Account> changed) {
+        saveAll(changed, null);
+    }
+
+    // As above, recording the balance movement that made the change (if movementId is not null)
+    // in the same journal record
+    public void saveAll(List<Account> changed, String movementId) {
+        for (Account account : changed) {
+            IndexKeys keys = indexedKeys.get(account.getId());
+            if (keys == null || !keys.equals(new IndexKeys(account.getAccountNumber(), account.getUserId()))) {
+                throw new IllegalArgumentException("saveAll cannot add accounts or change indexed fields");
+            }
+        }
+        long appliedAt = System.currentTimeMillis();
+        RepositoryJournal<Account> journal = this.journal;
+        if (journal == null) {
+            changed.forEach(account -> accounts.put(account.getId(), account));
+            if (movementId != null) {
+                appliedMovements.put(movementId, appliedAt);
+            }
+        } else {
+            journal.mutate(() -> {
+                journal.logUpserts(changed, movementId != null ? movementMarker(movementId, appliedAt) : null);
+                changed.forEach(account -> accounts.put(account.getId(), account));
+                if (movementId != null) {
+                    appliedMovements.put(movementId, appliedAt); // before mutate returns; see checkpoint
+                }
+            });
+        }
+    }
+
+    public boolean isMovementApplied(String movementId) {
+        return appliedMovements.containsKey(movementId);
+    }
+
+    public int forgetMovementsBefore(long epochMillis) {
+        int before = appliedMovements.size();
+        appliedMovements.values().removeIf(appliedAt -> appliedAt < epochMillis);
+        return before - appliedMovements.size();
+    }
+
     public Optional<Account> findById(Long id) {
         return Optional.ofNullable(accounts.get(id));
     }
@@ -28,10 +120,32 @@ public class AccountRepository {
         return new ArrayList<>(accounts.values());
     }
 
+    // Keyset page in id order: up to limit accounts with id > after (null starts at the beginning).
+    // Cost is O(limit), however large the table.
+    public List<Account> findPage(Long after, int limit) {
+        NavigableSet<Long> ids = after == null ? orderedIds : orderedIds.tailSet(after, false);
+        List<Account> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids) {
+            if (page.size() >= limit) {
+                break;
+            }
+            Account account = accounts.get(id);
+            if (account != null) {
+                page.add(account);
+            }
+        }
+        return page;
+    }
+
     public List<Account> findByUserId(Long userId) {
-        List<Account> userAccounts = new ArrayList<>();
-        for (Account account : accounts.values()) {
-            if (account.getUserId().equals(userId)) {
+        Set<Long> ids = userIdIndex.get(userId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Account> userAccounts = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Account account = accounts.get(id);
+            if (account != null && userId.equals(account.getUserId())) {
                 userAccounts.add(account);
             }
         }
@@ -39,13 +153,29 @@ public class AccountRepository {
     }
 
     public Optional<Account> findByAccountNumber(String accountNumber) {
-        return accounts.values().stream()
-                .filter(account -> account.getAccountNumber().equals(accountNumber))
-                .findFirst();
+        Long id = accountNumberIndex.get(accountNumber);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Account account = accounts.get(id);
+        if (account == null || !accountNumber.equals(account.getAccountNumber())) {
+            return Optional.empty();
+        }
+        return Optional.of(account);
     }
 
     public void deleteById(Long id) {
-        accounts.remove(id);
+        RepositoryJournal<Account> journal = this.journal;
+        if (journal == null) {
+            remove(id);
+        } else {
+            journal.mutate(() -> accounts.computeIfPresent(id, (key, previous) -> {
+                journal.logDelete(key);
+                unindex(key);
+                orderedIds.remove(key);
+                return null;
+            }));
+        }
     }
 
     public boolean existsById(Long id) {
@@ -55,4 +185,133 @@ public class AccountRepository {
     public long count() {
         return accounts.size();
     }
+
+    // =================== Journal support ===================
+    public void attachJournal(RepositoryJournal<Account> journal) {
+        this.journal = journal;
+    }
+
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    // Returns once this thread's saves and deletes are durable (when journaling with group commit)
+    public void awaitDurable() {
+        RepositoryJournal<Account> journal = this.journal;
+        if (journal != null) {
+            journal.awaitDurable();
+        }
+    }
+
+    // Applies a recovered record without logging it again
+    public void restore(Account account) {
+        // Recovery replays history in order, so the latest owner of an account number simply wins
+        accounts.compute(account.getId(), (id, previous) -> {
+            index(id, account, false);
+            return account;
+        });
+        idGenerator.accumulateAndGet(account.getId() + 1, Math::max);
+    }
+
+    public void restoreDelete(long id) {
+        remove(id);
+    }
+
+    // Applies a recovered movement marker (see movementMarker)
+    public void restoreMovement(String marker) {
+        int space = marker.indexOf(' ');
+        appliedMovements.put(marker.substring(space + 1), Long.parseLong(marker.substring(0, space)));
+    }
+
+    // Markers of the movements still remembered, for the snapshot
+    public List<String> movementMarkers() {
+        List<String> markers = new ArrayList<>(appliedMovements.size());
+        appliedMovements.forEach((movementId, appliedAt) -> markers.add(movementMarker(movementId, appliedAt)));
+        return markers;
+    }
+
+    public Collection<Account> snapshot() {
+        return Collections.unmodifiableCollection(accounts.values());
+    }
+
+    private static String movementMarker(String movementId, long appliedAt) {
+        return appliedAt + " " + movementId;
+    }
+
+    private void remove(Long id) {
+        accounts.computeIfPresent(id, (key, previous) -> {
+            unindex(key);
+            orderedIds.remove(key);
+            return null;
+        });
+    }
+
+    // Claims the account's number for the id, or throws if another account holds it. Returns the
+    // number if this call claimed it, null if there was nothing new to claim.
+    private String claimAccountNumber(Long id, Account account) {
+        String number = account.getAccountNumber();
+        IndexKeys previous = indexedKeys.get(id);
+        if (number == null || (previous != null && number.equals(previous.accountNumber()))) {
+            return null;
+        }
+        Long owner = accountNumberIndex.putIfAbsent(number, id);
+        if (owner != null && !owner.equals(id)) {
+            throw new DuplicateAccountNumberException(number);
+        }
+        return owner == null ? number : null;
+    }
+
+    // Runs inside accounts.compute for the id. With exclusive set, an account number held by
+    // another account is rejected before anything changes.
+    private void index(Long id, Account account, boolean exclusive) {
+        IndexKeys keys = new IndexKeys(account.getAccountNumber(), account.getUserId());
+        IndexKeys previous = indexedKeys.get(id);
+        String previousNumber = previous != null ? previous.accountNumber() : null;
+        Long previousUserId = previous != null ? previous.userId() : null;
+
+        if (keys.accountNumber() != null && !keys.accountNumber().equals(previousNumber)) {
+            if (exclusive) {
+                claimAccountNumber(id, account);
+            } else {
+                accountNumberIndex.put(keys.accountNumber(), id);
+            }
+        }
+        if (previousNumber != null && !previousNumber.equals(keys.accountNumber())) {
+            accountNumberIndex.remove(previousNumber, id);
+        }
+        if (!Objects.equals(previousUserId, keys.userId())) {
+            if (previousUserId != null) {
+                removeFromUserIndex(previousUserId, id);
+            }
+            if (keys.userId() != null) {
+                userIdIndex.compute(keys.userId(), (k, ids) -> {
+                    Set<Long> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    updated.add(id);
+                    return updated;
+                });
+            }
+        }
+        indexedKeys.put(id, keys);
+        orderedIds.add(id);
+    }
+
+    private void unindex(Long id) {
+        IndexKeys keys = indexedKeys.remove(id);
+        if (keys == null) {
+            return;
+        }
+        if (keys.accountNumber() != null) {
+            accountNumberIndex.remove(keys.accountNumber(), id);
+        }
+        if (keys.userId() != null) {
+            removeFromUserIndex(keys.userId(), id);
+        }
+    }
+
+    private void removeFromUserIndex(Long userId, Long id) {
+        userIdIndex.computeIfPresent(userId, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
 }
@@ -0,0 +1,175 @@
+package com.banking.account.service;
+
+import com.banking.account.exception.AccountNotFoundException;
+import com.banking.account.exception.InsufficientFundsException;
+import com.banking.account.model.Account;
+import com.banking.account.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes balance mutations per account using a fixed pool of striped locks,
+ * so concurrent credits/debits never lose updates while unrelated accounts
+ * (almost always on different stripes) proceed in parallel.
+ *
+ * With the journal on, changes are made to copies and saved; the stored accounts are replaced
+ * only once the journal append has succeeded, so a failed append leaves memory untouched. That
+ * costs one Account copy per changed account, which is the price of apply-after-journal. With
+ * the journal off (the default) there is nothing to fail, so the primitive balance is changed
+ * in place under the stripe lock and the hot path allocates only the updatedAt timestamp
+ * (the Optional from findById does not escape).
+ */
+@Component
+public class AccountBalanceEngine {
+    private static final int STRIPES = 1024; // power of two
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    public AccountBalanceEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Amounts are in minor units (see Money)
+    public Account credit(Long id, long amount) {
+        return credit(id, amount, null);
+    }
+
+    // A non-null movementId is journaled with the change (see AccountRepository.saveAll)
+    public Account credit(Long id, long amount, String movementId) {
+        requirePositive(amount);
+        ReentrantLock lock = locks[stripe(id)];
+        lock.lock();
+        try {
+            Account account = editable(getAccount(id));
+            account.setBalanceMinorUnits(Math.addExact(account.getBalanceMinorUnits(), amount));
+            account.setUpdatedAt(LocalDateTime.now());
+            return store(account, movementId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Account debit(Long id, long amount) {
+        return debit(id, amount, null);
+    }
+
+    public Account debit(Long id, long amount, String movementId) {
+        requirePositive(amount);
+        ReentrantLock lock = locks[stripe(id)];
+        lock.lock();
+        try {
+            Account account = editable(getAccount(id));
+            long balance = account.getBalanceMinorUnits();
+            if (balance < amount) {
+                throw new InsufficientFundsException(id);
+            }
+            account.setBalanceMinorUnits(balance - amount);
+            account.setUpdatedAt(LocalDateTime.now());
+            return store(account, movementId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Moves funds between two accounts atomically. Both stripes are taken in
+    // ascending stripe order so opposing transfers cannot deadlock.
+    public void transfer(Long fromId, Long toId, long amount) {
+        transfer(fromId, toId, amount, null);
+    }
+
+    public void transfer(Long fromId, Long toId, long amount, String movementId) {
+        requirePositive(amount);
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        int a = stripe(fromId);
+        int b = stripe(toId);
+        ReentrantLock first = locks[Math.min(a, b)];
+        ReentrantLock second = locks[Math.max(a, b)];
+
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                Account from = editable(getAccount(fromId));
+                Account to = editable(getAccount(toId));
+                long balance = from.getBalanceMinorUnits();
+                if (balance < amount) {
+                    throw new InsufficientFundsException(fromId);
+                }
+                long credited = Math.addExact(to.getBalanceMinorUnits(), amount);
+                LocalDateTime now = LocalDateTime.now();
+                from.setBalanceMinorUnits(balance - amount);
+                from.setUpdatedAt(now);
+                to.setBalanceMinorUnits(credited);
+                to.setUpdatedAt(now);
+                if (accountRepository.isJournaled() || movementId != null) {
+                    accountRepository.saveAll(List.of(from, to), movementId); // one journal record, so never half-applied
+                }
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    public <T> T withLock(Long id, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(id)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The account to change: a copy while journaling, otherwise the stored instance itself
+    private Account editable(Account stored) {
+        return accountRepository.isJournaled() ? new Account(stored) : stored;
+    }
+
+    // Saves a changed account. An in-place change without a movement id is already stored.
+    private Account store(Account account, String movementId) {
+        if (movementId != null) {
+            accountRepository.saveAll(List.of(account), movementId);
+        } else if (accountRepository.isJournaled()) {
+            accountRepository.save(account);
+        }
+        return account;
+    }
+
+    private static int stripe(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L; // spread sequential ids across stripes
+        return (int) (h >>> 32) & (STRIPES - 1);
+    }
+
+    // No capturing orElseThrow here: it would allocate a lambda per call on the hot path
+    private Account getAccount(Long id) {
+        Account account = accountRepository.findById(id).orElse(null);
+        if (account == null) {
+            throw new AccountNotFoundException(id);
+        }
+        return account;
+    }
+
+    private static void requirePositive(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+    }
+}
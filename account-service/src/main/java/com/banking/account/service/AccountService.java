@@ -1,15 +1,25 @@
 package com.banking.account.service;
 
 import com.banking.account.model.Account;
+import com.banking.account.model.BalanceMovement;
+import com.banking.account.model.BalanceMovementResult;
+import com.banking.account.model.User;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface AccountService {
     Account createAccount(Account account);
     Optional<Account> getAccountById(Long id);
     List<Account> getAllAccounts();
+    List<Account> getAccountsPage(Long after, int limit);
     List<Account> getAccountsByUserId(Long userId);
     Optional<Account> getAccountByNumber(String accountNumber);
+    Optional<User> getAccountOwner(Long id);
+    Map<Long, User> getAccountOwners(List<Long> ids);
     Account updateAccount(Long id, Account account);
+    Account credit(Long id, long amountMinorUnits);
+    Account debit(Long id, long amountMinorUnits);
+    List<BalanceMovementResult> applyMovements(List<BalanceMovement> movements);
     void deleteAccount(Long id);
 }
@@ -1,13 +1,24 @@
 package com.banking.account.service;
 
+import com.banking.account.client.UserCache;
+import com.banking.account.exception.AccountNotFoundException;
 import com.banking.account.model.Account;
+import com.banking.account.model.BalanceMovement;
+import com.banking.account.model.BalanceMovementResult;
+import com.banking.account.model.Money;
+import com.banking.account.model.User;
 import com.banking.account.repository.AccountRepository;
+import com.banking.journal.JournalException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AccountServiceImpl implements AccountService {
@@ -15,11 +26,25 @@ public class AccountServiceImpl implements AccountService {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private AccountBalanceEngine balanceEngine;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MovementRegistry movementRegistry;
+
     @Override
     public Account createAccount(Account account) {
+        // Ids are assigned here; an id from the request body would replace that account, balance
+        // included, without taking the balance engine's lock
+        account.setId(null);
         account.setCreatedAt(LocalDateTime.now());
         account.setUpdatedAt(LocalDateTime.now());
-        return accountRepository.save(account);
+        Account created = accountRepository.save(account);
+        accountRepository.awaitDurable();
+        return created;
     }
 
     @Override
@@ -32,6 +57,11 @@ public class AccountServiceImpl implements AccountService {
         return accountRepository.findAll();
     }
 
+    @Override
+    public List<Account> getAccountsPage(Long after, int limit) {
+        return accountRepository.findPage(after, limit);
+    }
+
     @Override
     public List<Account> getAccountsByUserId(Long userId) {
         return accountRepository.findByUserId(userId);
@@ -42,24 +72,113 @@ public class AccountServiceImpl implements AccountService {
         return accountRepository.findByAccountNumber(accountNumber);
     }
 
+    // Empty if the account or its owner does not exist; throws if user-service cannot be reached
+    @Override
+    public Optional<User> getAccountOwner(Long id) {
+        Optional<Account> account = accountRepository.findById(id);
+        if (account.isEmpty() || account.get().getUserId() == null) {
+            return Optional.empty();
+        }
+        return userCache.getUserById(account.get().getUserId());
+    }
+
+    // Owners keyed by account id, for accounts whose owner exists. All lookups are started before
+    // any is joined, so the cache misses go to user-service as one bulk call rather than one per account.
+    @Override
+    public Map<Long, User> getAccountOwners(List<Long> ids) {
+        Map<Long, CompletableFuture<Optional<User>>> lookups = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Optional<Account> account = accountRepository.findById(id);
+            if (account.isPresent() && account.get().getUserId() != null) {
+                lookups.put(id, userCache.getUserByIdAsync(account.get().getUserId()));
+            }
+        }
+        Map<Long, User> owners = new LinkedHashMap<>();
+        for (Map.Entry<Long, CompletableFuture<Optional<User>>> lookup : lookups.entrySet()) {
+            UserCache.await(lookup.getValue()).ifPresent(owner -> owners.put(lookup.getKey(), owner));
+        }
+        return owners;
+    }
+
     @Override
     public Account updateAccount(Long id, Account account) {
-        Optional<Account> existing = accountRepository.findById(id);
-        if (existing.isPresent()) {
-            Account updated = existing.get();
-            updated.setBalance(account.getBalance());
-            updated.setAccountType(account.getAccountType());
-            updated.setUpdatedAt(LocalDateTime.now());
-            return accountRepository.save(updated);
+        // Balance is only changed through credit/debit so concurrent updates are never lost
+        Account updated = balanceEngine.withLock(id, () -> {
+            Optional<Account> existing = accountRepository.findById(id);
+            if (existing.isPresent()) {
+                Account changed = new Account(existing.get());
+                changed.setAccountType(account.getAccountType());
+                changed.setUpdatedAt(LocalDateTime.now());
+                return accountRepository.save(changed);
+            }
+            throw new AccountNotFoundException(id);
+        });
+        accountRepository.awaitDurable();
+        return updated;
+    }
+
+    @Override
+    public Account credit(Long id, long amountMinorUnits) {
+        // Waits for the journal outside the account lock so other writers to the account are not held up
+        Account account = balanceEngine.credit(id, amountMinorUnits);
+        accountRepository.awaitDurable();
+        return account;
+    }
+
+    @Override
+    public Account debit(Long id, long amountMinorUnits) {
+        Account account = balanceEngine.debit(id, amountMinorUnits);
+        accountRepository.awaitDurable();
+        return account;
+    }
+
+    @Override
+    public List<BalanceMovementResult> applyMovements(List<BalanceMovement> movements) {
+        // Applied in submission order so movements on the same account keep their order
+        List<BalanceMovementResult> results = new ArrayList<>(movements.size());
+        for (BalanceMovement movement : movements) {
+            results.add(movementRegistry.applyOnce(movement.getMovementId(), () -> {
+                try {
+                    applyMovement(movement);
+                    return BalanceMovementResult.applied();
+                } catch (JournalException e) {
+                    throw e; // the whole batch fails; nothing after this point can be acknowledged
+                } catch (RuntimeException e) {
+                    return BalanceMovementResult.rejected(e.getMessage());
+                }
+            }));
         }
-        throw new RuntimeException("Account not found with id: " + id);
+        accountRepository.awaitDurable();
+        return results;
     }
 
     @Override
     public void deleteAccount(Long id) {
-        if (!accountRepository.existsById(id)) {
-            throw new RuntimeException("Account not found with id: " + id);
+        balanceEngine.withLock(id, () -> {
+            if (!accountRepository.existsById(id)) {
+                throw new AccountNotFoundException(id);
+            }
+            accountRepository.deleteById(id);
+            return null;
+        });
+        accountRepository.awaitDurable();
+    }
+
+    private void applyMovement(BalanceMovement movement) {
+        if (movement.getAmount() == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        long amount = Money.toMinorUnits(movement.getAmount());
+        Long from = movement.getFromAccountId();
+        Long to = movement.getToAccountId();
+        if (from != null && to != null) {
+            balanceEngine.transfer(from, to, amount, movement.getMovementId());
+        } else if (from != null) {
+            balanceEngine.debit(from, amount, movement.getMovementId());
+        } else if (to != null) {
+            balanceEngine.credit(to, amount, movement.getMovementId());
+        } else {
+            throw new IllegalArgumentException("fromAccountId or toAccountId is required");
         }
-        accountRepository.deleteById(id);
     }
 }
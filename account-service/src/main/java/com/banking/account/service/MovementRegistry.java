@@ -0,0 +1,75 @@
+package com.banking.account.service;
+
+import com.banking.account.model.BalanceMovementResult;
+import com.banking.account.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of every keyed balance movement, so a caller that re-sends a
+ * movement after a timeout gets the original outcome instead of moving the money twice.
+ * Outcomes are kept for retention-ms; a movement re-sent after that is applied as new.
+ *
+ * Applied movements are durable: AccountRepository journals the movement id in the same
+ * record as the balance change and restores it on recovery, so a re-send after a restart
+ * is still recognized. Rejections changed nothing and are kept in memory only; a rejected
+ * movement re-sent after a restart is evaluated again.
+ */
+@Component
+public class MovementRegistry {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Value("${account.movements.retention-ms:86400000}")
+    private long retentionMs;
+
+    private final Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService expirer;
+
+    private record Outcome(BalanceMovementResult result, long recordedAtMillis) {}
+
+    @PostConstruct
+    public void start() {
+        expirer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "movement-registry-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, retentionMs / 100);
+        expirer.scheduleWithFixedDelay(this::expire, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        expirer.shutdownNow();
+    }
+
+    // Runs the movement once per key. A concurrent call with the same key waits for the first
+    // one; later calls get its outcome. If the movement throws, nothing is recorded. The movement
+    // must pass the key to AccountRepository.saveAll so that an applied outcome survives a restart.
+    public BalanceMovementResult applyOnce(String movementId, Supplier<BalanceMovementResult> movement) {
+        if (movementId == null) {
+            return movement.get();
+        }
+        return outcomes.computeIfAbsent(movementId, id -> new Outcome(
+                accountRepository.isMovementApplied(id) ? BalanceMovementResult.applied() : movement.get(),
+                System.currentTimeMillis())).result();
+    }
+
+    private void expire() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        outcomes.values().removeIf(outcome -> outcome.recordedAtMillis() < cutoff);
+        accountRepository.forgetMovementsBefore(cutoff);
+    }
+}
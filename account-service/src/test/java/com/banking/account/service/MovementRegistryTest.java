@@ -0,0 +1,136 @@
+package com.banking.account.service;
+
+import com.banking.account.journal.AccountCodec;
+import com.banking.account.model.Account;
+import com.banking.account.model.BalanceMovement;
+import com.banking.account.model.BalanceMovementResult;
+import com.banking.account.repository.AccountRepository;
+import com.banking.journal.RepositoryJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovementRegistryTest {
+
+    private AccountRepository accountRepository;
+    private AccountServiceImpl accountService;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = new AccountRepository();
+        accountService = serviceOver(accountRepository);
+        accountRepository.save(new Account(1L, 1L, "ACC001", new BigDecimal("100.00"), "CHECKING"));
+        accountRepository.save(new Account(2L, 1L, "ACC002", new BigDecimal("50.00"), "SAVINGS"));
+    }
+
+    @Test
+    void resentMovementIsAppliedOnce() {
+        BalanceMovement transfer = new BalanceMovement("m-1", 1L, 2L, new BigDecimal("30.00"));
+
+        BalanceMovementResult first = accountService.applyMovements(List.of(transfer)).get(0);
+        BalanceMovementResult second = accountService.applyMovements(List.of(transfer)).get(0);
+
+        assertTrue(first.isApplied());
+        assertTrue(second.isApplied());
+        assertEquals(new BigDecimal("70.00"), balanceOf(1L));
+        assertEquals(new BigDecimal("80.00"), balanceOf(2L));
+    }
+
+    @Test
+    void concurrentSendsOfOneMovementApplyItOnce() throws Exception {
+        BalanceMovement deposit = new BalanceMovement("m-2", null, 1L, new BigDecimal("5.00"));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<BalanceMovementResult>> sends = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                sends.add(() -> accountService.applyMovements(List.of(deposit)).get(0));
+            }
+            for (Future<BalanceMovementResult> result : pool.invokeAll(sends)) {
+                assertTrue(result.get().isApplied());
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertEquals(new BigDecimal("105.00"), balanceOf(1L));
+    }
+
+    @Test
+    void rejectedMovementChangesNothingAndIsNotRecordedAsApplied() {
+        BalanceMovement overdraft = new BalanceMovement("m-3", 2L, null, new BigDecimal("500.00"));
+
+        BalanceMovementResult result = accountService.applyMovements(List.of(overdraft)).get(0);
+
+        assertFalse(result.isApplied());
+        assertFalse(accountRepository.isMovementApplied("m-3"));
+        assertEquals(new BigDecimal("50.00"), balanceOf(2L));
+    }
+
+    @Test
+    void appliedMovementIsRecognizedAfterRestart(@TempDir Path directory) throws Exception {
+        AccountRepository beforeRestart = new AccountRepository();
+        RepositoryJournal<Account> journal = openJournal(directory, beforeRestart);
+        beforeRestart.save(new Account(1L, 1L, "ACC001", new BigDecimal("100.00"), "CHECKING"));
+        BalanceMovement deposit = new BalanceMovement("m-4", null, 1L, new BigDecimal("25.00"));
+        assertTrue(serviceOver(beforeRestart).applyMovements(List.of(deposit)).get(0).isApplied());
+        journal.close();
+
+        AccountRepository recovered = new AccountRepository();
+        RepositoryJournal<Account> reopened = openJournal(directory, recovered);
+        try {
+            assertTrue(recovered.isMovementApplied("m-4"));
+            assertTrue(serviceOver(recovered).applyMovements(List.of(deposit)).get(0).isApplied());
+            assertEquals(new BigDecimal("125.00"), recovered.findById(1L).orElseThrow().getBalance());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void forgottenMovementsAreNoLongerRecognized() {
+        accountService.applyMovements(List.of(new BalanceMovement("m-5", null, 1L, new BigDecimal("1.00"))));
+
+        accountRepository.forgetMovementsBefore(System.currentTimeMillis() + 1);
+
+        assertFalse(accountRepository.isMovementApplied("m-5"));
+    }
+
+    private BigDecimal balanceOf(Long id) {
+        return accountRepository.findById(id).orElseThrow().getBalance();
+    }
+
+    private static AccountServiceImpl serviceOver(AccountRepository repository) {
+        AccountBalanceEngine balanceEngine = new AccountBalanceEngine();
+        ReflectionTestUtils.setField(balanceEngine, "accountRepository", repository);
+        MovementRegistry movementRegistry = new MovementRegistry();
+        ReflectionTestUtils.setField(movementRegistry, "accountRepository", repository);
+        ReflectionTestUtils.setField(movementRegistry, "retentionMs", 86_400_000L);
+        AccountServiceImpl service = new AccountServiceImpl();
+        ReflectionTestUtils.setField(service, "accountRepository", repository);
+        ReflectionTestUtils.setField(service, "balanceEngine", balanceEngine);
+        ReflectionTestUtils.setField(service, "movementRegistry", movementRegistry);
+        return service;
+    }
+
+    private static RepositoryJournal<Account> openJournal(Path directory, AccountRepository repository) throws Exception {
+        RepositoryJournal<Account> journal = new RepositoryJournal<>(directory, new AccountCodec(), 1024 * 1024, 10);
+        journal.recover(repository::restore, repository::restoreDelete, repository::restoreMovement);
+        repository.attachJournal(journal);
+        return journal;
+    }
+}
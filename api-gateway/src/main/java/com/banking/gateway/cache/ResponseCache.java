@@ -0,0 +1,74 @@
+package com.banking.gateway.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory store of response bodies as byte arrays, evicting least recently used
+ * entries once the total size passes maxBytes. Each entry records the route generation
+ * it was captured under. An entry from an older generation, or past its expiry, is a miss.
+ */
+public class ResponseCache {
+    // Rough per-entry overhead beyond the body and key, so many tiny entries still count
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes; // guarded by this
+
+    public record CachedResponse(byte[] body, Map<String, List<String>> headers, String etag,
+                                 long expiresAtNanos, long generation) {
+        long weight(String key) {
+            return body.length + 2L * key.length() + ENTRY_OVERHEAD;
+        }
+    }
+
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized CachedResponse get(String key, long generation) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.generation() != generation || cached.expiresAtNanos() - System.nanoTime() <= 0) {
+            remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    public synchronized void put(String key, CachedResponse response) {
+        long weight = response.weight(key);
+        if (weight > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, response);
+        usedBytes += weight;
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = eldest.next();
+            usedBytes -= entry.getValue().weight(entry.getKey());
+            eldest.remove();
+        }
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            usedBytes -= previous.weight(key);
+        }
+    }
+}
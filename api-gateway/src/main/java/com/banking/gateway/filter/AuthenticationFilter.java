@@ -0,0 +1,175 @@
+package com.banking.gateway.filter;
+
+import com.banking.gateway.ratelimit.TokenBucketRateLimiter.Decision;
+import com.banking.gateway.security.InvalidTokenException;
+import com.banking.gateway.security.JwtVerifier;
+import com.banking.gateway.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requires a valid bearer token on every routed request except those under
+ * gateway.auth.public-paths. The verified user id is passed on in X-User-Id, so services can
+ * trust it without checking the token again; an X-User-Id sent by the client is always
+ * dropped. Missing or invalid tokens get 401, and 503 when the token cannot be checked
+ * because the signing keys are unavailable. A token not in the verification cache is
+ * charged to the caller's address first (see RateLimitFilter), and refused with 429 once that
+ * bucket is empty. Time spent authenticating is recorded in the gateway.auth.latency timer,
+ * tagged by whether the token came from the cache.
+ */
+@Component
+public class AuthenticationFilter implements GlobalFilter, Ordered {
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_ID_ATTR = AuthenticationFilter.class.getName() + ".userId";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Value("${gateway.auth.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gateway.auth.public-paths:}")
+    private List<String> publicPaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+
+    // The verified token, or the status to answer with instead
+    private record Outcome(VerifiedToken token, HttpStatus failure) {}
+
+    @PostConstruct
+    public void start() {
+        if (enabled && !jwtVerifier.isConfigured()) {
+            throw new IllegalStateException("gateway.auth.enabled needs gateway.auth.jwks-uri or gateway.auth.hmac-secret");
+        }
+        cachedTimer = timer("cached");
+        verifiedTimer = timer("verified");
+        rejectedTimer = timer("rejected");
+    }
+
+    @Override
+    public int getOrder() {
+        // Ahead of rate limiting, which keys authenticated callers by user id
+        return RateLimitFilter.ORDER - 50;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getHeaders().containsKey(USER_ID_HEADER)) {
+            request = request.mutate().headers(headers -> headers.remove(USER_ID_HEADER)).build();
+            exchange = exchange.mutate().request(request).build();
+        }
+        if (!enabled || isPublic(request.getURI().getRawPath())) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        String token = bearerToken(request);
+        if (token == null) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return unauthorized(exchange, null);
+        }
+        VerifiedToken cached = jwtVerifier.cached(token);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return forward(exchange, chain, cached);
+        }
+        Decision decision = rateLimitFilter.acquireVerification(exchange);
+        if (!decision.allowed()) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return RateLimitFilter.refuse(exchange, decision);
+        }
+        ServerWebExchange current = exchange;
+        return Mono.defer(() -> jwtVerifier.verify(token))
+                .map(verified -> new Outcome(verified, null))
+                .onErrorResume(InvalidTokenException.class, e -> Mono.just(new Outcome(null, HttpStatus.UNAUTHORIZED)))
+                .onErrorResume(e -> {
+                    System.err.println("Could not verify token: " + e.getMessage());
+                    return Mono.just(new Outcome(null, HttpStatus.SERVICE_UNAVAILABLE));
+                })
+                .flatMap(outcome -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (outcome.token() == null) {
+                        rejectedTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                        return outcome.failure() == HttpStatus.UNAUTHORIZED
+                                ? unauthorized(current, "invalid_token")
+                                : unavailable(current);
+                    }
+                    verifiedTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    return forward(current, chain, outcome.token());
+                });
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, VerifiedToken token) {
+        exchange.getAttributes().put(USER_ID_ATTR, token.userId());
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .header(USER_ID_HEADER, token.userId())
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange, String error) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE,
+                error == null ? "Bearer" : "Bearer error=\"" + error + "\"");
+        return response.setComplete();
+    }
+
+    private Mono<Void> unavailable(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        return response.setComplete();
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String bearerToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private Timer timer(String result) {
+        return Timer.builder("gateway.auth.latency")
+                .description("Time spent authenticating a request at the gateway")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,144 @@
+package com.banking.gateway.filter;
+
+import com.banking.gateway.ratelimit.TokenBucketRateLimiter;
+import com.banking.gateway.ratelimit.TokenBucketRateLimiter.Decision;
+import com.banking.gateway.ratelimit.TokenBucketRateLimiter.Limit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits each client to a token bucket per route. Capacity and refill rate come from
+ * gateway.rate-limit.capacity.<route-id> and gateway.rate-limit.refill-per-second.<route-id>,
+ * falling back to the defaults. Authenticated callers are keyed by user id, others by address.
+ * A refused request gets 429 with Retry-After and never reaches the backend. Buckets are in-process, so each gateway instance enforces its own limit.
+ *
+ * Authentication runs first, so it also charges each signature check of a token not seen
+ * before to a bucket per address (gateway.rate-limit.token-verification.*). A client sending
+ * made-up tokens is refused before the gateway spends RSA work on them.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${gateway.rate-limit.default.capacity:100}")
+    private long defaultCapacity;
+
+    @Value("${gateway.rate-limit.default.refill-per-second:50}")
+    private double defaultRefillPerSecond;
+
+    @Value("${gateway.rate-limit.idle-eviction-ms:60000}")
+    private long idleEvictionMs;
+
+    @Value("${gateway.rate-limit.token-verification.capacity:20}")
+    private long verificationCapacity;
+
+    @Value("${gateway.rate-limit.token-verification.refill-per-second:5}")
+    private double verificationRefillPerSecond;
+
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter();
+    private final Map<String, Limit> limitByRoute = new ConcurrentHashMap<>();
+    private Limit verificationLimit;
+    private ScheduledExecutorService evictor;
+
+    @PostConstruct
+    public void start() {
+        verificationLimit = new Limit(verificationCapacity, verificationRefillPerSecond);
+        evictor = Executors.newSingleThreadScheduledExecutor();
+        evictor.scheduleWithFixedDelay(limiter::evictIdle, idleEvictionMs, idleEvictionMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        Limit limit = limitOf(route.getId());
+        if (!limit.enabled()) {
+            return chain.filter(exchange);
+        }
+        Decision decision = limiter.tryAcquire(route.getId() + '|' + clientOf(exchange), limit);
+        if (decision.allowed()) {
+            exchange.getResponse().getHeaders().set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+            return chain.filter(exchange);
+        }
+        return refuse(exchange, decision);
+    }
+
+    // Takes a token from the caller's address bucket for one signature check
+    public Decision acquireVerification(ServerWebExchange exchange) {
+        if (!verificationLimit.enabled()) {
+            return new Decision(true, Long.MAX_VALUE, 0);
+        }
+        return limiter.tryAcquire("verify|" + addressOf(exchange), verificationLimit);
+    }
+
+    // 429 with Retry-After for a refused decision
+    public static Mono<Void> refuse(ServerWebExchange exchange, Decision decision) {
+        ServerHttpResponse response = exchange.getResponse();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999L));
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().set(REMAINING_HEADER, "0");
+        return response.setComplete();
+    }
+
+    private Limit limitOf(String routeId) {
+        return limitByRoute.computeIfAbsent(routeId, id -> new Limit(
+                environment.getProperty("gateway.rate-limit.capacity." + id, Long.class, defaultCapacity),
+                environment.getProperty("gateway.rate-limit.refill-per-second." + id, Double.class, defaultRefillPerSecond)));
+    }
+
+    // The authenticated user, otherwise the caller's address as seen by the gateway;
+    // X-Forwarded-For is not trusted, since clients can set it
+    private static String clientOf(ServerWebExchange exchange) {
+        String userId = exchange.getAttribute(AuthenticationFilter.USER_ID_ATTR);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        return addressOf(exchange);
+    }
+
+    private static String addressOf(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+}
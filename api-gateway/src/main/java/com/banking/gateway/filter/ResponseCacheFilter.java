@@ -0,0 +1,286 @@
+package com.banking.gateway.filter;
+
+import com.banking.gateway.cache.ResponseCache;
+import com.banking.gateway.cache.ResponseCache.CachedResponse;
+import jakarta.annotation.PostConstruct;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches successful GET responses per route for gateway.cache.ttl-ms.<route-id>.
+ * Routes without a TTL are not cached.
+ *
+ * A cacheable response is held until it is complete or exceeds max-entry-bytes. A complete
+ * one is stored and sent with its ETag, hit or miss, and a request whose If-None-Match
+ * matches gets a 304 with no body; a larger one is streamed on as it arrives and not stored.
+ * Any POST, PUT, PATCH or DELETE through a route bumps that route's generation when it starts
+ * and when it finishes, which retires everything cached for the route, and a read that
+ * overlapped the write is not stored. gateway.cache.invalidates.<route-id> lists further
+ * routes whose data the route's writes change (transfers move account balances), and their
+ * generations are bumped too. Writes that reach a service without passing the gateway, such
+ * as transaction-service's recovery sweep, are covered only by the TTL.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    // Response headers that describe one transfer rather than the resource
+    private static final List<String> UNCACHED_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.DATE, HttpHeaders.SET_COOKIE, CACHE_STATUS_HEADER);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${gateway.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${gateway.cache.max-entry-bytes:1048576}")
+    private int maxEntryBytes;
+
+    private final Map<String, Long> ttlByRoute = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Generations each route's writes bump: its own first, then those of the routes it invalidates
+    private final Map<String, List<AtomicLong>> retiredByWrites = new ConcurrentHashMap<>();
+    private ResponseCache cache;
+
+    @PostConstruct
+    public void start() {
+        cache = new ResponseCache(maxBytes);
+    }
+
+    @Override
+    public int getOrder() {
+        // Must wrap the response before NettyWriteResponseFilter writes the backend body into it
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        AtomicLong generation = generationOf(route.getId());
+
+        if (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+                || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method)) {
+            List<AtomicLong> retired = retiredBy(route.getId());
+            retired.forEach(AtomicLong::incrementAndGet);
+            return chain.filter(exchange).doFinally(signal -> retired.forEach(AtomicLong::incrementAndGet));
+        }
+        long ttlMs = ttlOf(route.getId());
+        if (!HttpMethod.GET.equals(method) || ttlMs <= 0) {
+            return chain.filter(exchange);
+        }
+
+        String key = keyOf(request);
+        long startGeneration = generation.get();
+        String cacheControl = request.getHeaders().getCacheControl();
+        if (cacheControl == null || !cacheControl.contains("no-cache")) {
+            CachedResponse cached = cache.get(key, startGeneration);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+        }
+        ServerHttpResponse capturing = new CapturingResponse(exchange.getResponse(), key, ttlMs,
+                                                             startGeneration, generation,
+                                                             request.getHeaders().getIfNoneMatch());
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        cached.headers().forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        headers.setContentLength(cached.body().length);
+        response.setStatusCode(HttpStatus.OK);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+        private final String key;
+        private final long ttlMs;
+        private final long startGeneration;
+        private final AtomicLong generation;
+        private final List<String> ifNoneMatch;
+
+        CapturingResponse(ServerHttpResponse delegate, String key, long ttlMs, long startGeneration,
+                          AtomicLong generation, List<String> ifNoneMatch) {
+            super(delegate);
+            this.key = key;
+            this.ttlMs = ttlMs;
+            this.startGeneration = startGeneration;
+            this.generation = generation;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        // Holds the body back until it completes or outgrows max-entry-bytes. The first group
+        // is emitted either on completion, when it is the whole body, or when the limit is
+        // crossed, after which every later chunk is emitted on its own and passed straight on.
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!cacheable()) {
+                return super.writeWith(body);
+            }
+            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            long[] total = new long[1];
+            Flux<List<DataBuffer>> groups = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> (total[0] += buffer.readableByteCount()) > maxEntryBytes);
+            Flux<DataBuffer> out = groups.switchOnFirst((first, all) -> {
+                if (first.hasValue() && total[0] <= maxEntryBytes) {
+                    return complete(first.get());
+                }
+                return all.flatMapIterable(group -> group);
+            });
+            return super.writeWith(out);
+        }
+
+        private boolean cacheable() {
+            HttpHeaders headers = getHeaders();
+            String cacheControl = headers.getCacheControl();
+            return HttpStatus.OK.equals(getStatusCode())
+                    && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                    && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")))
+                    && headers.getContentLength() <= maxEntryBytes;
+        }
+
+        // The whole body is in hand: store it, then send it with its ETag, or a 304 if the
+        // client already has it
+        private Mono<DataBuffer> complete(List<DataBuffer> buffers) {
+            byte[] body = new byte[(int) buffers.stream().mapToLong(DataBuffer::readableByteCount).sum()];
+            int offset = 0;
+            for (DataBuffer buffer : buffers) {
+                int length = buffer.readableByteCount();
+                buffer.read(body, offset, length);
+                offset += length;
+                DataBufferUtils.release(buffer);
+            }
+            String etag = etagOf(body);
+            store(body, etag);
+            HttpHeaders headers = getHeaders();
+            headers.setETag(etag);
+            if (matches(ifNoneMatch, etag)) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return Mono.empty();
+            }
+            headers.setContentLength(body.length);
+            return Mono.just(bufferFactory().wrap(body));
+        }
+
+        private void store(byte[] body, String etag) {
+            if (generation.get() != startGeneration) {
+                return;
+            }
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            getHeaders().forEach((name, values) -> {
+                if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+            cache.put(key, new CachedResponse(body, headers, etag, expiresAt, startGeneration));
+        }
+    }
+
+    private AtomicLong generationOf(String routeId) {
+        return generations.computeIfAbsent(routeId, id -> new AtomicLong());
+    }
+
+    private List<AtomicLong> retiredBy(String routeId) {
+        return retiredByWrites.computeIfAbsent(routeId, id -> {
+            List<AtomicLong> retired = new ArrayList<>();
+            retired.add(generationOf(id));
+            for (String other : environment.getProperty("gateway.cache.invalidates." + id, String[].class,
+                                                        new String[0])) {
+                if (!other.isBlank() && !other.trim().equals(id)) {
+                    retired.add(generationOf(other.trim()));
+                }
+            }
+            return List.copyOf(retired);
+        });
+    }
+
+    private long ttlOf(String routeId) {
+        return ttlByRoute.computeIfAbsent(routeId,
+                id -> environment.getProperty("gateway.cache.ttl-ms." + id, Long.class, 0L));
+    }
+
+    // Responses vary by caller and representation, so both are part of the key
+    private static String keyOf(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        key.append('\n').append(request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null) {
+            key.append('\n').append(sha256(authorization.getBytes(StandardCharsets.UTF_8), 16));
+        }
+        return key.toString();
+    }
+
+    private static String etagOf(byte[] body) {
+        return "\"" + sha256(body, 16) + "\"";
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sha256(byte[] input, int bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(input);
+            return HexFormat.of().formatHex(digest, 0, bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
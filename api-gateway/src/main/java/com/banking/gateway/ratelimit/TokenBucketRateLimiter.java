@@ -0,0 +1,72 @@
+package com.banking.gateway.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token buckets, one per key, refilled lazily on each check.
+ *
+ * Each bucket is a single AtomicLong holding the time at which it will next be full
+ * (the "theoretical arrival time" form of a token bucket). Taking a token moves that time
+ * forward by one refill interval, and a request is refused when that would put it more
+ * than capacity intervals ahead of now. A check is one read and one CAS, with no locks
+ * and no background refill. A bucket whose full time has passed holds no state worth
+ * keeping, so evictIdle drops it.
+ */
+public class TokenBucketRateLimiter {
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public record Limit(long capacity, double refillPerSecond) {
+        public boolean enabled() {
+            return capacity > 0 && refillPerSecond > 0;
+        }
+    }
+
+    // remaining is the tokens left after an allowed request; retryAfterNanos is set when refused
+    public record Decision(boolean allowed, long remaining, long retryAfterNanos) {}
+
+    private static final class Bucket {
+        final long intervalNanos;
+        final long burstNanos;
+        final AtomicLong fullAt;
+
+        Bucket(Limit limit, long now) {
+            this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / limit.refillPerSecond()));
+            this.burstNanos = intervalNanos * limit.capacity();
+            this.fullAt = new AtomicLong(now);
+        }
+    }
+
+    public Decision tryAcquire(String key, Limit limit) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(limit, now));
+        }
+        while (true) {
+            long fullAt = bucket.fullAt.get();
+            long base = fullAt - now > 0 ? fullAt : now; // a bucket never fills beyond capacity
+            long next = base + bucket.intervalNanos;
+            long ahead = next - now;
+            if (ahead > bucket.burstNanos) {
+                return new Decision(false, 0, ahead - bucket.burstNanos);
+            }
+            if (bucket.fullAt.compareAndSet(fullAt, next)) {
+                return new Decision(true, (bucket.burstNanos - ahead) / bucket.intervalNanos, 0);
+            }
+        }
+    }
+
+    // Drops buckets that have refilled completely. A request racing the removal may spend a
+    // token from the dropped bucket; since that bucket was full, this costs at most one extra token.
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.fullAt.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
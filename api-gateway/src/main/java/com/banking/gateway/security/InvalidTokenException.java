@@ -0,0 +1,8 @@
+package com.banking.gateway.security;
+
+// Thrown for a bearer token that is malformed, badly signed, expired or not yet valid; surfaced as 401
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.banking.gateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RSA signing keys fetched from a JWKS endpoint and kept by key id. A known key is served
+ * from memory; once the set is older than refreshMs it is still served while one refresh
+ * runs in the background. An unknown key id triggers a refresh, at most once per
+ * minRefreshMs, so tokens with made-up key ids cannot hammer the endpoint.
+ * Concurrent refreshes share one fetch. A fetch that fails or returns an unusable set
+ * fails the lookup with SigningKeysUnavailableException and keeps the previous keys.
+ */
+class JwkKeySet {
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final String jwksUri;
+    private final long refreshNanos;
+    private final long minRefreshNanos;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long fetchedAtNanos;
+    private volatile boolean fetched;
+    private final AtomicReference<Mono<Map<String, PublicKey>>> inFlight = new AtomicReference<>();
+
+    JwkKeySet(WebClient webClient, ObjectMapper objectMapper, String jwksUri, long refreshMs, long minRefreshMs) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.jwksUri = jwksUri;
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMs);
+        this.minRefreshNanos = TimeUnit.MILLISECONDS.toNanos(minRefreshMs);
+    }
+
+    // Empty when no key with this id can be found; SigningKeysUnavailableException when the
+    // refresh needed to look for it failed
+    Mono<PublicKey> key(String kid) {
+        PublicKey key = keys.get(kid);
+        long age = System.nanoTime() - fetchedAtNanos;
+        if (key != null) {
+            if (age > refreshNanos) {
+                refresh().subscribe(refreshed -> {}, error -> {}); // failure already logged
+            }
+            return Mono.just(key);
+        }
+        if (fetched && age < minRefreshNanos) {
+            return Mono.empty();
+        }
+        return refresh().mapNotNull(refreshed -> refreshed.get(kid));
+    }
+
+    private Mono<Map<String, PublicKey>> refresh() {
+        while (true) {
+            Mono<Map<String, PublicKey>> current = inFlight.get();
+            if (current != null) {
+                return current;
+            }
+            Mono<Map<String, PublicKey>> fetch = webClient.get().uri(jwksUri)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .map(this::parse)
+                    .doOnNext(parsed -> keys = parsed)
+                    .doOnError(e -> System.err.println("Could not fetch JWKS from " + jwksUri + ": " + e.getMessage()))
+                    .onErrorMap(e -> new SigningKeysUnavailableException("JWKS unavailable: " + e.getMessage(), e))
+                    .doFinally(signal -> {
+                        fetchedAtNanos = System.nanoTime();
+                        fetched = true;
+                        inFlight.set(null);
+                    })
+                    .cache();
+            if (inFlight.compareAndSet(null, fetch)) {
+                return fetch;
+            }
+        }
+    }
+
+    private Map<String, PublicKey> parse(String body) {
+        try {
+            Map<String, PublicKey> parsed = new HashMap<>();
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            for (JsonNode jwk : objectMapper.readTree(body).path("keys")) {
+                String use = jwk.path("use").asText("sig");
+                if (!"RSA".equals(jwk.path("kty").asText()) || !"sig".equals(use) || !jwk.hasNonNull("kid")) {
+                    continue;
+                }
+                BigInteger modulus = new BigInteger(1, decoder.decode(jwk.path("n").asText()));
+                BigInteger exponent = new BigInteger(1, decoder.decode(jwk.path("e").asText()));
+                parsed.put(jwk.get("kid").asText(), factory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            }
+            return Map.copyOf(parsed);
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Malformed JWKS: " + e.getMessage(), e);
+        }
+    }
+}
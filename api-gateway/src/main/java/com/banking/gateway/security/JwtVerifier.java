@@ -0,0 +1,190 @@
+package com.banking.gateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Verifies compact JWS bearer tokens: RS256 against the keys published at gateway.auth.jwks-uri,
+ * and HS256 against gateway.auth.hmac-secret when one is set. A token needs an exp claim, and
+ * its issuer must match gateway.auth.issuer when that is configured.
+ *
+ * Verified tokens are remembered by their SHA-256 until they expire, so a client reusing a
+ * token pays for the signature check once. The raw token is never stored. The cache holds at
+ * most token-cache.max-size tokens and evicts the least recently used one to make room.
+ */
+@Component
+public class JwtVerifier {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${gateway.auth.jwks-uri:}")
+    private String jwksUri;
+
+    @Value("${gateway.auth.hmac-secret:}")
+    private String hmacSecret;
+
+    @Value("${gateway.auth.issuer:}")
+    private String issuer;
+
+    @Value("${gateway.auth.user-id-claim:sub}")
+    private String userIdClaim;
+
+    @Value("${gateway.auth.clock-skew-seconds:30}")
+    private long clockSkewSeconds;
+
+    @Value("${gateway.auth.token-cache.max-size:100000}")
+    private int maxCachedTokens;
+
+    @Value("${gateway.auth.jwks.refresh-ms:600000}")
+    private long jwksRefreshMs;
+
+    @Value("${gateway.auth.jwks.min-refresh-ms:30000}")
+    private long jwksMinRefreshMs;
+
+    private TokenCache verified;
+    private JwkKeySet keySet;
+    private SecretKeySpec hmacKey;
+
+    @PostConstruct
+    public void start() {
+        verified = new TokenCache(maxCachedTokens);
+        if (!jwksUri.isBlank()) {
+            keySet = new JwkKeySet(WebClient.create(), objectMapper, jwksUri, jwksRefreshMs, jwksMinRefreshMs);
+        }
+        if (!hmacSecret.isBlank()) {
+            hmacKey = new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        }
+    }
+
+    public boolean isConfigured() {
+        return keySet != null || hmacKey != null;
+    }
+
+    // The cached result for a token verified earlier and not yet expired, otherwise null
+    public VerifiedToken cached(String token) {
+        return verified.get(hash(token), epochSecond());
+    }
+
+    // Fails with InvalidTokenException for a token that does not verify, and with another
+    // exception if it cannot be checked right now (signing keys unavailable)
+    public Mono<VerifiedToken> verify(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            return Mono.error(new InvalidTokenException("Token is not a signed JWT"));
+        }
+        JsonNode header;
+        JsonNode claims;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            header = objectMapper.readTree(decoder.decode(parts[0]));
+            claims = objectMapper.readTree(decoder.decode(parts[1]));
+            signature = decoder.decode(parts[2]);
+        } catch (IOException | IllegalArgumentException e) {
+            return Mono.error(new InvalidTokenException("Token is not a signed JWT"));
+        }
+        byte[] signedContent = (parts[0] + '.' + parts[1]).getBytes(StandardCharsets.US_ASCII);
+
+        String algorithm = header.path("alg").asText();
+        Mono<Boolean> signatureValid;
+        if ("RS256".equals(algorithm) && keySet != null) {
+            signatureValid = keySet.key(header.path("kid").asText())
+                    .map(key -> verifyRsa(key, signedContent, signature))
+                    .defaultIfEmpty(false);
+        } else if ("HS256".equals(algorithm) && hmacKey != null) {
+            signatureValid = Mono.just(verifyHmac(signedContent, signature));
+        } else {
+            return Mono.error(new InvalidTokenException("Unsupported token algorithm " + algorithm));
+        }
+        return signatureValid.map(valid -> {
+            if (!valid) {
+                throw new InvalidTokenException("Bad token signature");
+            }
+            VerifiedToken result = checkClaims(claims);
+            remember(hash(token), result);
+            return result;
+        });
+    }
+
+    private VerifiedToken checkClaims(JsonNode claims) {
+        long now = epochSecond();
+        if (!claims.path("exp").canConvertToLong()) {
+            throw new InvalidTokenException("Token has no expiry");
+        }
+        long expiresAt = claims.get("exp").asLong();
+        if (expiresAt + clockSkewSeconds <= now) {
+            throw new InvalidTokenException("Token expired");
+        }
+        if (claims.path("nbf").canConvertToLong() && claims.get("nbf").asLong() - clockSkewSeconds > now) {
+            throw new InvalidTokenException("Token not valid yet");
+        }
+        if (!issuer.isBlank() && !issuer.equals(claims.path("iss").asText())) {
+            throw new InvalidTokenException("Token issuer not accepted");
+        }
+        String userId = claims.path(userIdClaim).asText();
+        if (userId.isBlank()) {
+            throw new InvalidTokenException("Token has no " + userIdClaim + " claim");
+        }
+        return new VerifiedToken(userId, expiresAt);
+    }
+
+    private void remember(String hash, VerifiedToken token) {
+        if (token.expiresAtEpochSecond() <= epochSecond()) {
+            return; // accepted only through clock skew
+        }
+        verified.put(hash, token);
+    }
+
+    private boolean verifyHmac(byte[] signedContent, byte[] signature) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hmacKey);
+            return MessageDigest.isEqual(mac.doFinal(signedContent), signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean verifyRsa(PublicKey key, byte[] signedContent, byte[] signature) {
+        try {
+            Signature verifier = Signature.getInstance("SHA256withRSA");
+            verifier.initVerify(key);
+            verifier.update(signedContent);
+            return verifier.verify(signature);
+        } catch (GeneralSecurityException e) {
+            return false; // wrong key type or malformed signature
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long epochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,8 @@
+package com.banking.gateway.security;
+
+// Thrown when the JWKS endpoint cannot be fetched or parsed, so a token cannot be checked; surfaced as 503
+public class SigningKeysUnavailableException extends RuntimeException {
+    public SigningKeysUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
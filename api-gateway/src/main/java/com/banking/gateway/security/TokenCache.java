@@ -0,0 +1,71 @@
+package com.banking.gateway.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verified tokens by hash, bounded to maxSize entries. The cache is split into segments,
+ * each a LinkedHashMap in access order behind its own lock, so concurrent lookups rarely
+ * contend. A full segment evicts its least recently used entry on insert, which is O(1)
+ * however many entries are held. Expired entries are dropped when looked up.
+ */
+class TokenCache {
+    private static final int SEGMENTS = 16; // power of two
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private static final class Segment extends LinkedHashMap<String, VerifiedToken> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(Math.min(capacity, 1024), 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    TokenCache(int maxSize) {
+        int perSegment = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    // The token for the hash, or null if it is unknown or expired at nowEpochSecond
+    VerifiedToken get(String hash, long nowEpochSecond) {
+        Segment segment = segmentOf(hash);
+        synchronized (segment) {
+            VerifiedToken token = segment.get(hash);
+            if (token != null && token.expiresAtEpochSecond() <= nowEpochSecond) {
+                segment.remove(hash);
+                return null;
+            }
+            return token;
+        }
+    }
+
+    void put(String hash, VerifiedToken token) {
+        Segment segment = segmentOf(hash);
+        synchronized (segment) {
+            segment.put(hash, token);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentOf(String hash) {
+        return segments[hash.hashCode() & (SEGMENTS - 1)];
+    }
+}
@@ -0,0 +1,4 @@
+package com.banking.gateway.security;
+
+// What the gateway keeps from a verified bearer token
+public record VerifiedToken(String userId, long expiresAtEpochSecond) {}
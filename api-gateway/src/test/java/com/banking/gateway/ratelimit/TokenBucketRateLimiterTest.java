@@ -0,0 +1,111 @@
+package com.banking.gateway.ratelimit;
+
+import com.banking.gateway.ratelimit.TokenBucketRateLimiter.Decision;
+import com.banking.gateway.ratelimit.TokenBucketRateLimiter.Limit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter();
+
+    @Test
+    void admitsUpToCapacityThenRefuses() {
+        Limit limit = new Limit(5, 0.1); // one token per 10 s, so nothing refills during the test
+
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            Decision decision = limiter.tryAcquire("client", limit);
+            assertTrue(decision.allowed());
+            assertEquals(remaining, decision.remaining());
+        }
+        Decision refused = limiter.tryAcquire("client", limit);
+
+        assertFalse(refused.allowed());
+        assertTrue(refused.retryAfterNanos() > 0);
+        assertTrue(refused.retryAfterNanos() <= TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        Limit limit = new Limit(2, 50); // one token per 20 ms
+
+        assertTrue(limiter.tryAcquire("client", limit).allowed());
+        assertTrue(limiter.tryAcquire("client", limit).allowed());
+        Decision refused = limiter.tryAcquire("client", limit);
+        assertFalse(refused.allowed());
+
+        TimeUnit.NANOSECONDS.sleep(refused.retryAfterNanos() + TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertTrue(limiter.tryAcquire("client", limit).allowed());
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() throws InterruptedException {
+        Limit limit = new Limit(3, 1000); // one token per millisecond
+
+        assertTrue(limiter.tryAcquire("client", limit).allowed());
+        TimeUnit.MILLISECONDS.sleep(20); // idle far longer than it takes to fill
+        int allowed = 0;
+        while (limiter.tryAcquire("client", limit).allowed() && allowed < 100) {
+            allowed++;
+        }
+
+        // Tokens keep arriving while the loop runs, so allow a little over capacity
+        assertTrue(allowed >= 3 && allowed < 10, "allowed " + allowed);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        Limit limit = new Limit(1, 0.1);
+
+        assertTrue(limiter.tryAcquire("a", limit).allowed());
+        assertFalse(limiter.tryAcquire("a", limit).allowed());
+        assertTrue(limiter.tryAcquire("b", limit).allowed());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        Limit limit = new Limit(100, 0.1);
+        List<Callable<Boolean>> callers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            callers.add(() -> limiter.tryAcquire("shared", limit).allowed());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        int allowed = 0;
+        try {
+            for (Future<Boolean> result : pool.invokeAll(callers)) {
+                if (result.get()) {
+                    allowed++;
+                }
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(100, allowed);
+    }
+
+    @Test
+    void evictIdleDropsOnlyRefilledBuckets() throws InterruptedException {
+        limiter.tryAcquire("fast", new Limit(1, 1000));
+        limiter.tryAcquire("slow", new Limit(1, 0.1));
+
+        TimeUnit.MILLISECONDS.sleep(10);
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+}
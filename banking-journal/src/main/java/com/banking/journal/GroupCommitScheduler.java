@@ -0,0 +1,218 @@
+package com.banking.journal;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Turns many concurrent "make my write durable" requests into one fsync.
+ * Appends accumulate in the log until either the commit interval has passed
+ * since the first pending append or the unflushed bytes reach the threshold;
+ * a single flush then releases every request thread waiting on it.
+ *
+ * If a flush fails (disk full, I/O error), waiters are released with a
+ * JournalException and the scheduler reports itself unhealthy, so new writes are
+ * refused instead of acknowledged. The flush is retried every retry interval and
+ * the scheduler becomes healthy again once one succeeds.
+ */
+public class GroupCommitScheduler implements Closeable {
+    private static final long RETRY_INTERVAL_MS = 100;
+
+    private final WriteAheadLog log;
+    private final long intervalNanos;
+    private final long thresholdBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+    private final Thread committer;
+
+    private final DistributionSummary batchRecords;
+    private final DistributionSummary batchBytes;
+    private final Timer commitLatency;
+    private final Timer ackWait;
+
+    private volatile long committedBytes;
+    private long committedRecords;
+    private volatile boolean running = true;
+    private volatile RuntimeException failure; // last flush failure, null while healthy
+
+    public GroupCommitScheduler(WriteAheadLog log, long intervalMicros, long thresholdBytes, MeterRegistry registry,
+                                String metricPrefix) {
+        this.log = log;
+        this.intervalNanos = TimeUnit.MICROSECONDS.toNanos(intervalMicros);
+        this.thresholdBytes = thresholdBytes;
+        this.committedBytes = log.durableBytes();
+        this.committedRecords = log.appendedRecords();
+        this.batchRecords = DistributionSummary.builder(metricPrefix + ".commit.batch.records")
+                .description("Journal records made durable per fsync")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.batchBytes = DistributionSummary.builder(metricPrefix + ".commit.batch.bytes")
+                .description("Journal bytes made durable per fsync")
+                .baseUnit("bytes")
+                .register(registry);
+        this.commitLatency = Timer.builder(metricPrefix + ".commit.latency")
+                .description("Time spent in one group fsync")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.ackWait = Timer.builder(metricPrefix + ".commit.ack.wait")
+                .description("Time a request waited for its write to become durable")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+
+        this.committer = new Thread(this::run, metricPrefix + "-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Blocks until everything the calling thread has appended so far is on disk; throws
+    // JournalException if that cannot happen because flushing is failing or the journal closed
+    public void awaitDurable() {
+        long target = log.appendedBytes();
+        if (target <= committedBytes) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            pending.signal();
+            while (committedBytes < target) {
+                if (failure != null) {
+                    throw new JournalException("Journal flush failing", failure);
+                }
+                if (!running) {
+                    throw new JournalException("Journal is closed", null);
+                }
+                committed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        ackWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // Refuses a new write up front while the journal cannot make writes durable
+    public void checkHealthy() {
+        RuntimeException current = failure;
+        if (current != null) {
+            throw new JournalException("Journal flush failing", current);
+        }
+        if (!running) {
+            throw new JournalException("Journal is closed", null);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            pending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                awaitBatch();
+                commit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                fail(e);
+                try {
+                    Thread.sleep(RETRY_INTERVAL_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+        try {
+            commit();
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+        lock.lock();
+        try {
+            committed.signalAll(); // wake waiters so they observe the shutdown
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for a first unflushed append, then lets the batch fill for up to one
+    // interval or until it reaches the byte threshold
+    private void awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && log.appendedBytes() <= committedBytes) {
+                pending.awaitNanos(intervalNanos);
+            }
+            long deadline = System.nanoTime() + intervalNanos;
+            while (running && log.appendedBytes() - committedBytes < thresholdBytes) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                pending.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void commit() {
+        long records = log.appendedRecords();
+        long start = System.nanoTime();
+        long durable = log.flush();
+        long elapsed = System.nanoTime() - start;
+        if (failure != null) {
+            failure = null;
+            System.out.println("Group commit recovered, accepting writes again");
+        }
+        if (durable <= committedBytes) {
+            return;
+        }
+
+        commitLatency.record(elapsed, TimeUnit.NANOSECONDS);
+        batchBytes.record(durable - committedBytes);
+        batchRecords.record(Math.max(0, records - committedRecords));
+
+        lock.lock();
+        try {
+            committedBytes = durable;
+            committedRecords = records;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Records the failure and releases every waiter so it can fail instead of blocking
+    private void fail(RuntimeException e) {
+        if (failure == null) {
+            System.err.println("Group commit failed, refusing writes until a flush succeeds: " + e.getMessage());
+        }
+        lock.lock();
+        try {
+            failure = e;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
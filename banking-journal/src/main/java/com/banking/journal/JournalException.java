@@ -0,0 +1,8 @@
+package com.banking.journal;
+
+// Thrown when writes cannot be made durable; callers surface it as a 5xx
+public class JournalException extends RuntimeException {
+    public JournalException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,327 @@
+package com.banking.journal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durability for an in-memory repository: every mutation is appended to a
+ * write-ahead log and the full state is periodically written to a compact
+ * snapshot, after which older logs are dropped.
+ *
+ * Files are numbered by generation. snapshot-N.bin holds the state as of some
+ * point after wal-N.log was started, so recovery loads the newest snapshot and
+ * replays wal-N.log onwards. Log records carry whole entities or deletes, so
+ * replaying a record the snapshot already reflects is harmless.
+ *
+ * A batch may carry a marker string, written in the same record, so a caller can persist
+ * a fact about the change (such as the id of the request that caused it) atomically with
+ * it. Markers are handed back on recovery, and a checkpoint writes the markers the caller
+ * still needs into the snapshot.
+ *
+ * Durability: with group commit (useGroupCommit), awaitDurable() returns only once
+ * the caller's records are fsynced. Without it, records reach disk within one
+ * flush interval, and a crash loses what was appended since the last flush.
+ */
+public class RepositoryJournal<T> implements Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x42534E31; // "BSN1"
+    private static final int MARKED_SNAPSHOT_MAGIC = 0x42534E32; // "BSN2": entities, then markers
+    private static final Pattern LOG_FILE = Pattern.compile("wal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d+)\\.bin");
+
+    private final Path directory;
+    private final EntityCodec<T> codec;
+    private final int regionSize;
+    private final long flushIntervalMs;
+    // Mutations hold the read side across "append + apply", so a checkpoint that
+    // rotates under the write side knows every record in older logs is applied
+    private final ReentrantReadWriteLock checkpointGate = new ReentrantReadWriteLock();
+
+    private WriteAheadLog log;
+    private long generation;
+
+    private MeterRegistry groupCommitRegistry;
+    private String groupCommitMetricPrefix;
+    private long groupCommitIntervalMicros;
+    private long groupCommitThresholdBytes;
+    private GroupCommitScheduler groupCommit;
+
+    public RepositoryJournal(Path directory, EntityCodec<T> codec, int regionSize, long flushIntervalMs) {
+        this.directory = directory;
+        this.codec = codec;
+        this.regionSize = regionSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    // Replaces periodic background flushing with group commit, so callers can wait
+    // for durability through awaitDurable(); must be called before recover().
+    // Metrics are published as <metricPrefix>.commit.*
+    public void useGroupCommit(long intervalMicros, long thresholdBytes, MeterRegistry registry, String metricPrefix) {
+        this.groupCommitMetricPrefix = metricPrefix;
+        this.groupCommitIntervalMicros = intervalMicros;
+        this.groupCommitThresholdBytes = thresholdBytes;
+        this.groupCommitRegistry = registry;
+    }
+
+    // Loads the newest snapshot and replays later logs, then starts a fresh log
+    public void recover(Consumer<T> upsert, LongConsumer delete) throws IOException {
+        recover(upsert, delete, marker -> {});
+    }
+
+    // As above, also handing back markers in log order, each after the upserts of its batch
+    public void recover(Consumer<T> upsert, LongConsumer delete, Consumer<String> marker) throws IOException {
+        Files.createDirectories(directory);
+        long snapshotGeneration = latest(generations(SNAPSHOT_FILE));
+        if (snapshotGeneration >= 0) {
+            readSnapshot(snapshotFile(snapshotGeneration), upsert, marker);
+        }
+
+        long lastGeneration = Math.max(snapshotGeneration, 0);
+        for (long logGeneration : generations(LOG_FILE)) {
+            if (logGeneration >= snapshotGeneration) {
+                WriteAheadLog.replay(logFile(logGeneration), (type, payload) -> {
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+                    if (type == WriteAheadLog.UPSERT) {
+                        upsert.accept(codec.read(in));
+                    } else if (type == WriteAheadLog.DELETE) {
+                        delete.accept(in.readLong());
+                    } else if (type == WriteAheadLog.BATCH || type == WriteAheadLog.MARKED_BATCH) {
+                        String batchMarker = type == WriteAheadLog.MARKED_BATCH ? in.readUTF() : null;
+                        int count = in.readInt();
+                        List<T> entities = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            entities.add(codec.read(in));
+                        }
+                        entities.forEach(upsert);
+                        if (batchMarker != null) {
+                            marker.accept(batchMarker);
+                        }
+                    }
+                });
+            }
+            lastGeneration = Math.max(lastGeneration, logGeneration);
+        }
+
+        generation = lastGeneration + 1;
+        if (groupCommitRegistry != null) {
+            log = new WriteAheadLog(logFile(generation), regionSize, 0);
+            groupCommit = new GroupCommitScheduler(log, groupCommitIntervalMicros, groupCommitThresholdBytes,
+                                                   groupCommitRegistry, groupCommitMetricPrefix);
+        } else {
+            log = new WriteAheadLog(logFile(generation), regionSize, flushIntervalMs);
+        }
+    }
+
+    // Throws JournalException without running the mutation while group commit is failing,
+    // so nothing is applied that could not be acknowledged
+    public void mutate(Runnable mutation) {
+        if (groupCommit != null) {
+            groupCommit.checkHealthy();
+        }
+        checkpointGate.readLock().lock();
+        try {
+            mutation.run();
+        } finally {
+            checkpointGate.readLock().unlock();
+        }
+    }
+
+    public long logUpsert(T entity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            codec.write(new DataOutputStream(bytes), entity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode journal record", e);
+        }
+        return log.append(WriteAheadLog.UPSERT, bytes.toByteArray());
+    }
+
+    // One record for several entities, so recovery applies all of them or none
+    public long logUpserts(List<T> entities) {
+        return logUpserts(entities, null);
+    }
+
+    // As above, with a marker that recovery hands back only if the entities are applied too
+    public long logUpserts(List<T> entities, String marker) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * entities.size() + 64);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (marker != null) {
+                out.writeUTF(marker);
+            }
+            out.writeInt(entities.size());
+            for (T entity : entities) {
+                codec.write(out, entity);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode journal record", e);
+        }
+        return log.append(marker != null ? WriteAheadLog.MARKED_BATCH : WriteAheadLog.BATCH, bytes.toByteArray());
+    }
+
+    public long logDelete(long id) {
+        byte[] payload = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            payload[i] = (byte) id;
+            id >>>= 8;
+        }
+        return log.append(WriteAheadLog.DELETE, payload);
+    }
+
+    // Blocks until this thread's logged mutations are on disk; a no-op without group commit
+    public void awaitDurable() {
+        if (groupCommit != null) {
+            groupCommit.awaitDurable();
+        }
+    }
+
+    // Writes a snapshot of the given state and drops the logs and snapshots it supersedes
+    public void checkpoint(Iterable<T> state) throws IOException {
+        checkpoint(state, () -> null);
+    }
+
+    // As above, keeping markers in the snapshot. markers is asked for them after the log has been
+    // rotated, so it sees every marker whose record is in a log the snapshot supersedes, provided
+    // the caller records a marker before its mutate() returns.
+    public synchronized void checkpoint(Iterable<T> state, Supplier<Iterable<String>> markers) throws IOException {
+        long next;
+        checkpointGate.writeLock().lock();
+        try {
+            next = generation + 1;
+            log.rotate(logFile(next));
+            generation = next;
+        } finally {
+            checkpointGate.writeLock().unlock();
+        }
+
+        writeSnapshot(snapshotFile(next), state, markers.get());
+
+        for (long older : generations(LOG_FILE)) {
+            if (older < next) {
+                Files.deleteIfExists(logFile(older));
+            }
+        }
+        for (long older : generations(SNAPSHOT_FILE)) {
+            if (older < next) {
+                Files.deleteIfExists(snapshotFile(older));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (groupCommit != null) {
+            groupCommit.close();
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private void writeSnapshot(Path target, Iterable<T> state, Iterable<String> markers) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long count = 0;
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            BufferedOutputStream buffered = new BufferedOutputStream(file, 1 << 16);
+            CheckedOutputStream checked = new CheckedOutputStream(buffered, new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(markers != null ? MARKED_SNAPSHOT_MAGIC : SNAPSHOT_MAGIC);
+            for (T entity : state) {
+                out.writeBoolean(true);
+                codec.write(out, entity);
+                count++;
+            }
+            out.writeBoolean(false);
+            if (markers != null) {
+                for (String marker : markers) {
+                    out.writeBoolean(true);
+                    out.writeUTF(marker);
+                }
+                out.writeBoolean(false);
+            }
+            out.flush();
+            new DataOutputStream(buffered).writeLong(checked.getChecksum().getValue());
+            buffered.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Wrote snapshot " + target.getFileName() + " with " + count + " entries");
+    }
+
+    private void readSnapshot(Path source, Consumer<T> upsert, Consumer<String> marker) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(source), 1 << 16)) {
+            CheckedInputStream checked = new CheckedInputStream(file, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != MARKED_SNAPSHOT_MAGIC) {
+                throw new IOException("Not a snapshot: " + source);
+            }
+            List<T> entities = new ArrayList<>();
+            while (in.readBoolean()) {
+                entities.add(codec.read(in));
+            }
+            List<String> markers = new ArrayList<>();
+            if (magic == MARKED_SNAPSHOT_MAGIC) {
+                while (in.readBoolean()) {
+                    markers.add(in.readUTF());
+                }
+            }
+            long expected = checked.getChecksum().getValue();
+            if (new DataInputStream(file).readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + source);
+            }
+            entities.forEach(upsert);
+            markers.forEach(marker);
+        }
+    }
+
+    private List<Long> generations(Pattern pattern) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private static long latest(List<Long> generations) {
+        return generations.isEmpty() ? -1 : generations.get(generations.size() - 1);
+    }
+
+    private Path logFile(long generation) {
+        return directory.resolve("wal-" + generation + ".log");
+    }
+
+    private Path snapshotFile(long generation) {
+        return directory.resolve("snapshot-" + generation + ".bin");
+    }
+}
@@ -0,0 +1,234 @@
+package com.banking.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log file written through fixed-size memory-mapped regions.
+ * Appends only copy bytes into the mapping; flush() forces everything appended
+ * since the previous flush in one call. Flushes are driven either by the
+ * built-in periodic flusher or, with a flush interval of 0, by a
+ * GroupCommitScheduler.
+ *
+ * File layout: [int MAGIC][int regionSize] then records of
+ * [int payloadLength][int crc32(type, payload)][byte type][payload].
+ * A length of -1 marks the unused tail of a region; 0 marks the end of the log.
+ * Records never span regions, so replay maps and scans one region at a time and
+ * log files may grow past 2 GB.
+ */
+public class WriteAheadLog implements Closeable {
+    public static final byte UPSERT = 1;
+    public static final byte DELETE = 2;
+    public static final byte BATCH = 3; // several upserts applied all-or-nothing
+    public static final byte MARKED_BATCH = 4; // a batch plus a caller-defined marker recorded with it
+
+    private static final int MAGIC = 0x42574C31; // "BWL1"
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 9;
+    private static final int END_OF_REGION = -1;
+
+    public interface RecordHandler {
+        void handle(byte type, byte[] payload) throws IOException;
+    }
+
+    private final int regionSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher; // null when flushes are driven externally
+
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionOffset;
+    private int regionPosition;
+    private volatile long appendedBytes;
+    private volatile long appendedRecords;
+    private volatile long durableBytes;
+
+    public WriteAheadLog(Path file, int regionSize, long flushIntervalMs) throws IOException {
+        this.regionSize = regionSize;
+        open(file);
+        if (flushIntervalMs <= 0) {
+            this.flusher = null;
+            return;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public long append(byte type, byte[] payload) {
+        int size = RECORD_HEADER_BYTES + payload.length;
+        if (size > regionSize - FILE_HEADER_BYTES) {
+            throw new IllegalArgumentException("Log record of " + size + " bytes exceeds region size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+
+        appendLock.lock();
+        try {
+            if (regionPosition + size > regionSize) {
+                nextRegion();
+            }
+            region.putInt(regionPosition, payload.length);
+            region.putInt(regionPosition + 4, (int) crc.getValue());
+            region.put(regionPosition + 8, type);
+            region.put(regionPosition + RECORD_HEADER_BYTES, payload);
+            regionPosition += size;
+            appendedRecords++;
+            appendedBytes += size;
+            return appendedBytes;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to extend write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Log position (total bytes appended since open) after the latest append
+    public long appendedBytes() {
+        return appendedBytes;
+    }
+
+    public long appendedRecords() {
+        return appendedRecords;
+    }
+
+    public long durableBytes() {
+        return durableBytes;
+    }
+
+    // Forces everything appended so far to disk; one call covers all concurrent appenders.
+    // Returns the log position that is now durable.
+    public long flush() {
+        long target;
+        MappedByteBuffer current;
+        appendLock.lock();
+        try {
+            target = appendedBytes;
+            current = region;
+        } finally {
+            appendLock.unlock();
+        }
+        if (target > durableBytes) {
+            current.force();
+            durableBytes = target;
+        }
+        return target;
+    }
+
+    // Switches appends to a new file; everything written to the old one is forced first
+    public void rotate(Path file) throws IOException {
+        appendLock.lock();
+        try {
+            region.force();
+            durableBytes = appendedBytes;
+            channel.close();
+            open(file);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        appendLock.lock();
+        try {
+            region.force();
+            durableBytes = appendedBytes;
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Replays intact records in order, stopping at the end of the log or at the first torn record
+    public static void replay(Path file, RecordHandler handler) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size < FILE_HEADER_BYTES) {
+                return;
+            }
+            ByteBuffer header = in.map(FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a write-ahead log: " + file);
+            }
+            int regionSize = header.getInt(4);
+            for (long regionOffset = 0; regionOffset < size; regionOffset += regionSize) {
+                int regionLength = (int) Math.min(regionSize, size - regionOffset);
+                ByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, regionOffset, regionLength);
+                int position = regionOffset == 0 ? FILE_HEADER_BYTES : 0;
+                while (regionLength - position >= RECORD_HEADER_BYTES) {
+                    int length = data.getInt(position);
+                    if (length == END_OF_REGION) {
+                        break;
+                    }
+                    if (length == 0) {
+                        return;
+                    }
+                    if (length < 0 || position + RECORD_HEADER_BYTES + length > regionLength) {
+                        System.err.println("Ignoring torn write-ahead log tail in " + file + " at " + (regionOffset + position));
+                        return;
+                    }
+                    int storedCrc = data.getInt(position + 4);
+                    byte type = data.get(position + 8);
+                    byte[] payload = new byte[length];
+                    data.get(position + RECORD_HEADER_BYTES, payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(type);
+                    crc.update(payload);
+                    if ((int) crc.getValue() != storedCrc) {
+                        System.err.println("Ignoring corrupt write-ahead log tail in " + file + " at " + (regionOffset + position));
+                        return;
+                    }
+                    handler.handle(type, payload);
+                    position += RECORD_HEADER_BYTES + length;
+                }
+            }
+        }
+    }
+
+    private void open(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        regionOffset = 0;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionOffset, regionSize);
+        region.putInt(0, MAGIC);
+        region.putInt(4, regionSize);
+        regionPosition = FILE_HEADER_BYTES;
+    }
+
+    private void nextRegion() throws IOException {
+        if (regionSize - regionPosition >= 4) {
+            region.putInt(regionPosition, END_OF_REGION);
+        }
+        region.force();
+        regionOffset += regionSize;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionOffset, regionSize);
+        regionPosition = 0;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Write-ahead log flush failed: " + e.getMessage());
+        }
+    }
+}
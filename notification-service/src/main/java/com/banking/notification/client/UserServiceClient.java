@@ -0,0 +1,22 @@
+package com.banking.notification.client;
+
+import com.banking.notification.model.User;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@FeignClient(name = "user-service")
+public interface UserServiceClient {
+    // Keyset page in id order: up to limit users with id > after (null starts at the beginning)
+    @GetMapping("/api/users")
+    List<User> getUsersPage(@RequestParam(value = "after", required = false) Long after,
+                            @RequestParam("limit") int limit);
+
+    // At most 1000 ids per call; unknown ids are left out of the response
+    @PostMapping("/api/users/batch")
+    List<User> getUsersByIds(@RequestBody List<Long> ids);
+}
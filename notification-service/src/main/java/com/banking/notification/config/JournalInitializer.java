@@ -0,0 +1,88 @@
+package com.banking.notification.config;
+
+import com.banking.journal.RepositoryJournal;
+import com.banking.notification.journal.NotificationCodec;
+import com.banking.notification.model.Notification;
+import com.banking.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Restores NotificationRepository from disk before DataInitializer runs and keeps it journaled
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalInitializer {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${journal.directory:data/notification-service}")
+    private String directory;
+
+    @Value("${journal.region-size-mb:64}")
+    private int regionSizeMb;
+
+    @Value("${journal.flush-interval-ms:10}")
+    private long flushIntervalMs;
+
+    // When enabled, writes are acknowledged only after the fsync that covers them
+    @Value("${journal.group-commit.enabled:true}")
+    private boolean groupCommitEnabled;
+
+    @Value("${journal.group-commit.interval-micros:2000}")
+    private long groupCommitIntervalMicros;
+
+    @Value("${journal.group-commit.threshold-bytes:262144}")
+    private long groupCommitThresholdBytes;
+
+    @Value("${journal.snapshot-interval-ms:300000}")
+    private long snapshotIntervalMs;
+
+    private RepositoryJournal<Notification> journal;
+    private ScheduledExecutorService snapshotter;
+
+    @PostConstruct
+    public void recover() throws IOException {
+        journal = new RepositoryJournal<>(Paths.get(directory), new NotificationCodec(),
+                                          regionSizeMb * 1024 * 1024, flushIntervalMs);
+        if (groupCommitEnabled) {
+            journal.useGroupCommit(groupCommitIntervalMicros, groupCommitThresholdBytes, meterRegistry,
+                                   "notification.journal");
+        }
+        journal.recover(notificationRepository::restore, notificationRepository::restoreDelete);
+        notificationRepository.attachJournal(journal);
+        System.out.println("Notification journal recovered " + notificationRepository.count() + " notifications from " + directory);
+
+        snapshotter = Executors.newSingleThreadScheduledExecutor();
+        snapshotter.scheduleWithFixedDelay(this::checkpoint, snapshotIntervalMs, snapshotIntervalMs,
+                                           TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        snapshotter.shutdown();
+        checkpoint();
+        journal.close();
+    }
+
+    private void checkpoint() {
+        try {
+            journal.checkpoint(notificationRepository.snapshot());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Notification snapshot failed: " + e.getMessage());
+        }
+    }
+}
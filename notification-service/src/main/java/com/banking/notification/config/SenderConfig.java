@@ -0,0 +1,22 @@
+package com.banking.notification.config;
+
+import com.banking.notification.model.NotificationType;
+import com.banking.notification.sender.ChannelSender;
+import com.banking.notification.sender.RecordingChannelSender;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Stub bulk senders for the batched channels; DeliveryBatcher prefers a provider sender when one exists
+@Configuration
+public class SenderConfig {
+
+    @Bean
+    public ChannelSender emailStubSender() {
+        return new RecordingChannelSender(NotificationType.EMAIL);
+    }
+
+    @Bean
+    public ChannelSender smsStubSender() {
+        return new RecordingChannelSender(NotificationType.SMS);
+    }
+}
@@ -1,14 +1,30 @@
 package com.banking.notification.controller;
 
+import com.banking.journal.JournalException;
+import com.banking.notification.exception.DispatchRejectedException;
+import com.banking.notification.exception.SubscriberLimitException;
+import com.banking.notification.model.BroadcastJob;
+import com.banking.notification.model.BroadcastRequest;
 import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationCursor;
+import com.banking.notification.model.NotificationPage;
+import com.banking.notification.model.NotificationPriority;
+import com.banking.notification.model.NotificationStatus;
 import com.banking.notification.model.NotificationType;
+import com.banking.notification.service.NotificationBroadcaster;
 import com.banking.notification.service.NotificationService;
+import com.banking.notification.service.NotificationStreamBroker;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,14 +35,32 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class NotificationController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String NEXT_AFTER_HEADER = "X-Next-After";
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationBroadcaster notificationBroadcaster;
+
+    @Autowired
+    private NotificationStreamBroker notificationStreamBroker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<Notification> createNotification(@Valid @RequestBody Notification notification) {
         try {
             Notification createdNotification = notificationService.createNotification(notification);
+            notificationService.awaitDurable();
             return new ResponseEntity<>(createdNotification, HttpStatus.CREATED);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
@@ -36,16 +70,68 @@ public class NotificationController {
     public ResponseEntity<Notification> sendNotification(@PathVariable Long id) {
         try {
             Notification sentNotification = notificationService.sendNotification(id);
-            return new ResponseEntity<>(sentNotification, HttpStatus.OK);
+            return new ResponseEntity<>(sentNotification, HttpStatus.ACCEPTED);
+        } catch (DispatchRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Starts a fan-out in the background; poll the returned job for progress
+    @PostMapping("/broadcast")
+    public ResponseEntity<BroadcastJob> broadcast(@Valid @RequestBody BroadcastRequest request) {
+        try {
+            BroadcastJob job = notificationBroadcaster.broadcast(request);
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
+    @GetMapping("/broadcast/{jobId}")
+    public ResponseEntity<BroadcastJob> getBroadcast(@PathVariable Long jobId) {
+        Optional<BroadcastJob> job = notificationBroadcaster.getJob(jobId);
+        return job.map(j -> new ResponseEntity<>(j, HttpStatus.OK))
+                  .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // One keyset page in id order, limit notifications long (default DEFAULT_PAGE_SIZE, capped at
+    // MAX_PAGE_SIZE; a non-positive limit is rejected). When more may follow, the id to pass as after
+    // is sent in the X-Next-After header. /export streams every notification.
     @GetMapping
-    public ResponseEntity<List<Notification>> getAllNotifications() {
-        List<Notification> notifications = notificationService.getAllNotifications();
-        return new ResponseEntity<>(notifications, HttpStatus.OK);
+    public ResponseEntity<List<Notification>> getAllNotifications(@RequestParam(required = false) Long after,
+                                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            int size = pageSize(limit);
+            List<Notification> page = notificationService.getNotificationsPage(after, size);
+            HttpHeaders headers = new HttpHeaders();
+            if (page.size() == size) {
+                headers.add(NEXT_AFTER_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+            }
+            return new ResponseEntity<>(page, headers, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // NDJSON export of every notification in id order. Written a page at a time straight to the
+    // response, so memory use does not grow with the table.
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNotifications() {
+        StreamingResponseBody body = out -> {
+            Long after = null;
+            List<Notification> page;
+            while (!(page = notificationService.getNotificationsPage(after, EXPORT_PAGE_SIZE)).isEmpty()) {
+                for (Notification item : page) {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                }
+                out.flush();
+                after = page.get(page.size() - 1).getId();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -55,16 +141,48 @@ public class NotificationController {
                           .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    // One page of the inbox, newest first, sized like GET /; the cursor for the next page, if any,
+    // is sent in the X-Next-Cursor header
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Notification>> getNotificationsByUserId(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getNotificationsByUserId(userId);
-        return new ResponseEntity<>(notifications, HttpStatus.OK);
+    public ResponseEntity<List<Notification>> getNotificationsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            NotificationPage page = notificationService.getNotificationsByUserId(
+                    userId, parseCursor(cursor), pageSize(limit));
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/user/{userId}/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotificationsByUserId(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getUnreadNotificationsByUserId(userId);
-        return new ResponseEntity<>(notifications, HttpStatus.OK);
+    public ResponseEntity<List<Notification>> getUnreadNotificationsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            NotificationPage page = notificationService.getUnreadNotificationsByUserId(
+                    userId, parseCursor(cursor), pageSize(limit));
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Server-sent events for the user's IN_APP and PUSH notifications; on reconnect the
+    // browser's Last-Event-ID header replays what was missed
+    @GetMapping(path = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            SseEmitter emitter = notificationStreamBroker.subscribe(userId, lastEventId);
+            return new ResponseEntity<>(emitter, HttpStatus.OK);
+        } catch (SubscriberLimitException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        }
     }
 
     @GetMapping("/user/{userId}/unread-count")
@@ -80,30 +198,41 @@ public class NotificationController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Notification>> getNotificationsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<Notification>> getNotificationsByStatus(@PathVariable NotificationStatus status) {
         List<Notification> notifications = notificationService.getNotificationsByStatus(status);
         return new ResponseEntity<>(notifications, HttpStatus.OK);
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Notification>> getNotificationsByPriority(@PathVariable String priority) {
+    public ResponseEntity<List<Notification>> getNotificationsByPriority(@PathVariable NotificationPriority priority) {
         List<Notification> notifications = notificationService.getNotificationsByPriority(priority);
         return new ResponseEntity<>(notifications, HttpStatus.OK);
     }
 
+    // Paged like /user/{userId} (newest first)
     @GetMapping("/date-range")
     public ResponseEntity<List<Notification>> getNotificationsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        List<Notification> notifications = notificationService.getNotificationsByDateRange(start, end);
-        return new ResponseEntity<>(notifications, HttpStatus.OK);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            NotificationPage page = notificationService.getNotificationsByDateRange(
+                    start, end, parseCursor(cursor), pageSize(limit));
+            return pageResponse(page);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @PostMapping("/{id}/read")
     public ResponseEntity<Notification> markAsRead(@PathVariable Long id) {
         try {
             Notification notification = notificationService.markAsRead(id);
+            notificationService.awaitDurable();
             return new ResponseEntity<>(notification, HttpStatus.OK);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -113,7 +242,10 @@ public class NotificationController {
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
         try {
             notificationService.deleteNotification(id);
+            notificationService.awaitDurable();
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -127,7 +259,12 @@ public class NotificationController {
             @RequestParam String email) {
         try {
             Notification notification = notificationService.sendEmailNotification(userId, title, message, email);
-            return new ResponseEntity<>(notification, HttpStatus.OK);
+            notificationService.awaitDurable();
+            return new ResponseEntity<>(notification, HttpStatus.ACCEPTED);
+        } catch (DispatchRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
@@ -141,7 +278,12 @@ public class NotificationController {
             @RequestParam String phoneNumber) {
         try {
             Notification notification = notificationService.sendSMSNotification(userId, title, message, phoneNumber);
-            return new ResponseEntity<>(notification, HttpStatus.OK);
+            notificationService.awaitDurable();
+            return new ResponseEntity<>(notification, HttpStatus.ACCEPTED);
+        } catch (DispatchRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
@@ -154,7 +296,12 @@ public class NotificationController {
             @RequestParam String message) {
         try {
             Notification notification = notificationService.sendPushNotification(userId, title, message);
-            return new ResponseEntity<>(notification, HttpStatus.OK);
+            notificationService.awaitDurable();
+            return new ResponseEntity<>(notification, HttpStatus.ACCEPTED);
+        } catch (DispatchRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
@@ -167,9 +314,37 @@ public class NotificationController {
             @RequestParam String message) {
         try {
             Notification notification = notificationService.sendInAppNotification(userId, title, message);
-            return new ResponseEntity<>(notification, HttpStatus.OK);
+            notificationService.awaitDurable();
+            return new ResponseEntity<>(notification, HttpStatus.ACCEPTED);
+        } catch (DispatchRejectedException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
-}
\ No newline at end of file
+
+    // =================== Paging helpers ===================
+    private static NotificationCursor parseCursor(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : NotificationCursor.parse(cursor);
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static ResponseEntity<List<Notification>> pageResponse(NotificationPage page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor().encode());
+        }
+        return new ResponseEntity<>(page.getNotifications(), headers, HttpStatus.OK);
+    }
+}
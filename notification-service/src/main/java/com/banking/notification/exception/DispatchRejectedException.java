@@ -0,0 +1,10 @@
+package com.banking.notification.exception;
+
+import com.banking.notification.model.NotificationType;
+
+// Thrown when a channel's dispatch queue is full; surfaced to callers as 429
+public class DispatchRejectedException extends RuntimeException {
+    public DispatchRejectedException(NotificationType type) {
+        super("Dispatch queue full for channel: " + type);
+    }
+}
@@ -0,0 +1,8 @@
+package com.banking.notification.exception;
+
+// Thrown when a user already has the maximum number of open notification streams; surfaced as 429
+public class SubscriberLimitException extends RuntimeException {
+    public SubscriberLimitException(Long userId) {
+        super("Too many open notification streams for user: " + userId);
+    }
+}
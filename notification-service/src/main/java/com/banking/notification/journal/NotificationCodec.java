@@ -0,0 +1,49 @@
+package com.banking.notification.journal;
+
+import com.banking.journal.EntityCodec;
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationPriority;
+import com.banking.notification.model.NotificationStatus;
+import com.banking.notification.model.NotificationType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class NotificationCodec implements EntityCodec<Notification> {
+
+    @Override
+    public void write(DataOutput out, Notification notification) throws IOException {
+        out.writeLong(notification.getId());
+        EntityCodec.writeLong(out, notification.getUserId());
+        EntityCodec.writeString(out, notification.getType() != null ? notification.getType().name() : null);
+        EntityCodec.writeString(out, notification.getTitle());
+        EntityCodec.writeString(out, notification.getMessage());
+        EntityCodec.writeString(out, notification.getRecipient());
+        out.writeByte(notification.getStatus() != null ? notification.getStatus().code() : -1);
+        out.writeByte(notification.getPriority() != null ? notification.getPriority().code() : -1);
+        EntityCodec.writeDateTime(out, notification.getCreatedAt());
+        EntityCodec.writeDateTime(out, notification.getSentAt());
+        EntityCodec.writeDateTime(out, notification.getReadAt());
+    }
+
+    @Override
+    public Notification read(DataInput in) throws IOException {
+        Notification notification = new Notification();
+        notification.setId(in.readLong());
+        notification.setUserId(EntityCodec.readLong(in));
+        String type = EntityCodec.readString(in);
+        notification.setType(type != null ? NotificationType.valueOf(type) : null);
+        notification.setTitle(EntityCodec.readString(in));
+        notification.setMessage(EntityCodec.readString(in));
+        notification.setRecipient(EntityCodec.readString(in));
+        byte status = in.readByte();
+        notification.setStatus(status >= 0 ? NotificationStatus.fromCode(status) : null);
+        byte priority = in.readByte();
+        notification.setPriority(priority >= 0 ? NotificationPriority.fromCode(priority) : null);
+        notification.setCreatedAt(EntityCodec.readDateTime(in));
+        notification.setSentAt(EntityCodec.readDateTime(in));
+        notification.setReadAt(EntityCodec.readDateTime(in));
+        return notification;
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.notification.model;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one broadcast; updated by the broadcaster after every chunk
+public class BroadcastJob {
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final Long id;
+    private final NotificationType type;
+    private final String title;
+    private volatile State state = State.QUEUED;
+    private volatile Long targeted; // known up front for LIST, set once the user walk ends for ALL and RANGE
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile String failureReason;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public BroadcastJob(Long id, NotificationType type, String title) {
+        this.id = id;
+        this.type = type;
+        this.title = title;
+    }
+
+    public Long getId() { return id; }
+    public NotificationType getType() { return type; }
+    public String getTitle() { return title; }
+    public State getState() { return state; }
+    public Long getTargeted() { return targeted; }
+    public long getCreated() { return created.get(); }
+    public long getDispatched() { return dispatched.get(); }
+    public long getSkipped() { return skipped.get(); }
+    public String getFailureReason() { return failureReason; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public void setTargeted(Long targeted) { this.targeted = targeted; }
+
+    public void markAsRunning() {
+        this.state = State.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public void markAsCompleted() {
+        this.state = State.COMPLETED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void markAsFailed(String reason) {
+        this.failureReason = reason;
+        this.state = State.FAILED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void recordChunk(long createdCount, long dispatchedCount, long skippedCount) {
+        created.addAndGet(createdCount);
+        dispatched.addAndGet(dispatchedCount);
+        skipped.addAndGet(skippedCount);
+    }
+}
@@ -0,0 +1,36 @@
+package com.banking.notification.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+// Notification template fanned out to every user the selector matches
+public class BroadcastRequest {
+    @NotNull(message = "Notification type is required")
+    private NotificationType type;
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    @NotBlank(message = "Message is required")
+    private String message;
+
+    private NotificationPriority priority; // defaults to MEDIUM
+
+    @NotNull(message = "Selector is required")
+    private UserSelector selector;
+
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public NotificationPriority getPriority() { return priority; }
+    public void setPriority(NotificationPriority priority) { this.priority = priority; }
+
+    public UserSelector getSelector() { return selector; }
+    public void setSelector(UserSelector selector) { this.selector = selector; }
+}
@@ -20,16 +20,16 @@ public class Notification {
     private String message;
     
     private String recipient; // email, phone number, etc.
-    private String status; // PENDING, SENT, FAILED, READ
-    private String priority; // LOW, MEDIUM, HIGH, URGENT
+    private NotificationStatus status;
+    private NotificationPriority priority;
     private LocalDateTime createdAt;
     private LocalDateTime sentAt;
     private LocalDateTime readAt;
 
     // Constructors
     public Notification() {
-        this.status = "PENDING";
-        this.priority = "MEDIUM";
+        this.status = NotificationStatus.PENDING;
+        this.priority = NotificationPriority.MEDIUM;
         this.createdAt = LocalDateTime.now();
     }
 
@@ -44,6 +44,20 @@ public class Notification {
         this.recipient = recipient;
     }
 
+    public Notification(Notification other) {
+        this.id = other.id;
+        this.userId = other.userId;
+        this.type = other.type;
+        this.title = other.title;
+        this.message = other.message;
+        this.recipient = other.recipient;
+        this.status = other.status;
+        this.priority = other.priority;
+        this.createdAt = other.createdAt;
+        this.sentAt = other.sentAt;
+        this.readAt = other.readAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -63,11 +77,11 @@ public class Notification {
     public String getRecipient() { return recipient; }
     public void setRecipient(String recipient) { this.recipient = recipient; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public NotificationStatus getStatus() { return status; }
+    public void setStatus(NotificationStatus status) { this.status = status; }
 
-    public String getPriority() { return priority; }
-    public void setPriority(String priority) { this.priority = priority; }
+    public NotificationPriority getPriority() { return priority; }
+    public void setPriority(NotificationPriority priority) { this.priority = priority; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
@@ -79,17 +93,17 @@ public class Notification {
     public void setReadAt(LocalDateTime readAt) { this.readAt = readAt; }
 
     public void markAsSent() {
-        this.status = "SENT";
+        this.status = NotificationStatus.SENT;
         this.sentAt = LocalDateTime.now();
     }
 
     public void markAsRead() {
-        this.status = "READ";
+        this.status = NotificationStatus.READ;
         this.readAt = LocalDateTime.now();
     }
 
     public void markAsFailed() {
-        this.status = "FAILED";
+        this.status = NotificationStatus.FAILED;
         this.sentAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,37 @@
+package com.banking.notification.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Position in a user's inbox, ordered newest first (createdAt descending, then id descending).
+// Passed to clients as an opaque token; a page continues strictly after the cursor.
+public record NotificationCursor(LocalDateTime createdAt, long id) implements Comparable<NotificationCursor> {
+
+    public static NotificationCursor of(Notification notification) {
+        LocalDateTime createdAt = notification.getCreatedAt() != null ? notification.getCreatedAt() : LocalDateTime.MIN;
+        return new NotificationCursor(createdAt, notification.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NotificationCursor parse(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new NotificationCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                          Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    @Override
+    public int compareTo(NotificationCursor other) {
+        int byTime = other.createdAt.compareTo(createdAt);
+        return byTime != 0 ? byTime : Long.compare(other.id, id);
+    }
+}
@@ -0,0 +1,18 @@
+package com.banking.notification.model;
+
+import java.util.List;
+
+// One page of a user's inbox; nextCursor is null on the last page
+public class NotificationPage {
+    private final List<Notification> notifications;
+    private final NotificationCursor nextCursor;
+
+    public NotificationPage(List<Notification> notifications, NotificationCursor nextCursor) {
+        this.notifications = notifications;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Notification> getNotifications() { return notifications; }
+
+    public NotificationCursor getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,34 @@
+package com.banking.notification.model;
+
+// Codes are persisted by the journal; never renumber them
+public enum NotificationPriority {
+    LOW(0),
+    MEDIUM(1),
+    HIGH(2),
+    URGENT(3);
+
+    private static final NotificationPriority[] BY_CODE = new NotificationPriority[values().length];
+
+    static {
+        for (NotificationPriority priority : values()) {
+            BY_CODE[priority.code] = priority;
+        }
+    }
+
+    private final byte code;
+
+    NotificationPriority(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static NotificationPriority fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown notification priority code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
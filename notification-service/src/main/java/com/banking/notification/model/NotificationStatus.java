@@ -0,0 +1,34 @@
+package com.banking.notification.model;
+
+// Codes are persisted by the journal; never renumber them
+public enum NotificationStatus {
+    PENDING(0),
+    SENT(1),
+    FAILED(2),
+    READ(3);
+
+    private static final NotificationStatus[] BY_CODE = new NotificationStatus[values().length];
+
+    static {
+        for (NotificationStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final byte code;
+
+    NotificationStatus(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static NotificationStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown notification status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.notification.model;
+
+import java.util.List;
+
+// Which users a broadcast targets: ALL users, an inclusive userId RANGE, or an explicit LIST
+public class UserSelector {
+    public enum Mode { ALL, RANGE, LIST }
+
+    private Mode mode;
+    private Long fromUserId;
+    private Long toUserId;
+    private List<Long> userIds;
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public Long getFromUserId() { return fromUserId; }
+    public void setFromUserId(Long fromUserId) { this.fromUserId = fromUserId; }
+
+    public Long getToUserId() { return toUserId; }
+    public void setToUserId(Long toUserId) { this.toUserId = toUserId; }
+
+    public List<Long> getUserIds() { return userIds; }
+    public void setUserIds(List<Long> userIds) { this.userIds = userIds; }
+
+    public void validate() {
+        if (mode == null) {
+            throw new IllegalArgumentException("Selector mode is required");
+        }
+        if (mode == Mode.RANGE && (fromUserId == null || toUserId == null || fromUserId > toUserId)) {
+            throw new IllegalArgumentException("RANGE selector needs fromUserId <= toUserId");
+        }
+        if (mode == Mode.LIST && (userIds == null || userIds.isEmpty())) {
+            throw new IllegalArgumentException("LIST selector needs at least one userId");
+        }
+    }
+}
@@ -1,28 +1,117 @@
 package com.banking.notification.repository;
 
+import com.banking.journal.RepositoryJournal;
 import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationCursor;
+import com.banking.notification.model.NotificationPriority;
+import com.banking.notification.model.NotificationStatus;
 import com.banking.notification.model.NotificationType;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Repository
 public class NotificationRepository {
     private final Map<Long, Notification> notifications = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private volatile RepositoryJournal<Notification> journal; // set when durability is enabled
+
+    // Per-user inboxes ordered newest first. Only mutated inside notifications.compute(id, ...)
+    // and userInboxes.compute(userId, ...), so writers for the same id and the same user are serialized.
+    private final Map<Long, Inbox> userInboxes = new ConcurrentHashMap<>();
+    // Keys each id is currently indexed under; Notification is mutable, so the old
+    // values cannot be read back from the instance being re-saved.
+    private final Map<Long, IndexKeys> indexedKeys = new ConcurrentHashMap<>();
+    // Ids per status and per priority; the maps themselves are filled once and never change
+    private final Map<NotificationStatus, Set<Long>> statusIndex = new EnumMap<>(NotificationStatus.class);
+    private final Map<NotificationPriority, Set<Long>> priorityIndex = new EnumMap<>(NotificationPriority.class);
+    // createdAt index partitioned into hour buckets (hours since the epoch, UTC arithmetic),
+    // each ordered newest first like the inboxes. Range reads and retention touch only
+    // the buckets they cover; a bucket is dropped once its last notification goes.
+    private final ConcurrentNavigableMap<Long, NavigableSet<NotificationCursor>> timeBuckets = new ConcurrentSkipListMap<>();
+    // Ids in order, for keyset pagination. Added on every save, removed only on delete, so a
+    // notification being re-saved never drops out of a page being read.
+    private final NavigableSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+
+    private record IndexKeys(Long userId, NotificationCursor position, NotificationStatus status,
+                             NotificationPriority priority) {
+        boolean unread() { return status != NotificationStatus.READ; }
+    }
+
+    private static final class Inbox {
+        final NavigableSet<NotificationCursor> all = new ConcurrentSkipListSet<>();
+        final NavigableSet<NotificationCursor> unread = new ConcurrentSkipListSet<>();
+        // Size of unread, kept so reads are O(1). A plain AtomicLong rather than striped cells: every
+        // write already happens inside userInboxes.compute for the user, so writers never contend on it.
+        final AtomicLong unreadCount = new AtomicLong();
+        final AtomicLongArray statusCounts = new AtomicLongArray(NotificationStatus.values().length); // by code
+    }
+
+    public NotificationRepository() {
+        for (NotificationStatus status : NotificationStatus.values()) {
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+        }
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            priorityIndex.put(priority, ConcurrentHashMap.newKeySet());
+        }
+    }
 
     public Notification save(Notification notification) {
         if (notification.getId() == null) {
             notification.setId(idGenerator.getAndIncrement());
+        } else {
+            // Seeded notifications carry explicit ids; never hand those ids out again
+            idGenerator.accumulateAndGet(notification.getId() + 1, Math::max);
+        }
+        RepositoryJournal<Notification> journal = this.journal;
+        if (journal == null) {
+            put(notification);
+        } else {
+            journal.mutate(() -> notifications.compute(notification.getId(), (id, previous) -> {
+                journal.logUpsert(notification);
+                unindex(id);
+                index(id, notification);
+                return notification;
+            }));
         }
-        notifications.put(notification.getId(), notification);
         return notification;
     }
 
+    // Applies the change to a copy of the stored notification and swaps the copy in once it is
+    // journaled, so a failed append leaves readers and indexes on the old state. Runs inside the
+    // entry's compute, which serializes it with deletes; empty if the notification is gone.
+    public Optional<Notification> update(Long id, Consumer<Notification> change) {
+        Notification[] updated = new Notification[1];
+        RepositoryJournal<Notification> journal = this.journal;
+        Runnable mutation = () -> notifications.computeIfPresent(id, (key, previous) -> {
+            Notification copy = new Notification(previous);
+            change.accept(copy);
+            if (journal != null) {
+                journal.logUpsert(copy);
+            }
+            unindex(key);
+            index(key, copy);
+            updated[0] = copy;
+            return copy;
+        });
+        if (journal == null) {
+            mutation.run();
+        } else {
+            journal.mutate(mutation);
+        }
+        return Optional.ofNullable(updated[0]);
+    }
+
     public Optional<Notification> findById(Long id) {
         return Optional.ofNullable(notifications.get(id));
     }
@@ -31,11 +120,32 @@ public class NotificationRepository {
         return new ArrayList<>(notifications.values());
     }
 
+    // Keyset page in id order: up to limit notifications with id > after (null starts at the beginning).
+    // Cost is O(limit), however large the table.
+    public List<Notification> findPage(Long after, int limit) {
+        NavigableSet<Long> ids = after == null ? orderedIds : orderedIds.tailSet(after, false);
+        List<Notification> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids) {
+            if (page.size() >= limit) {
+                break;
+            }
+            Notification notification = notifications.get(id);
+            if (notification != null) {
+                page.add(notification);
+            }
+        }
+        return page;
+    }
+
     public List<Notification> findByUserId(Long userId) {
-        return notifications.values().stream()
-                .filter(notification -> notification.getUserId().equals(userId))
-                .sorted((n1, n2) -> n2.getCreatedAt().compareTo(n1.getCreatedAt()))
-                .collect(Collectors.toList());
+        Inbox inbox = userInboxes.get(userId);
+        return inbox == null ? new ArrayList<>() : resolve(inbox.all, userId, Integer.MAX_VALUE);
+    }
+
+    // Up to limit notifications for the user strictly after the cursor (newest first); cost is O(limit)
+    public List<Notification> findByUserId(Long userId, NotificationCursor after, int limit) {
+        Inbox inbox = userInboxes.get(userId);
+        return inbox == null ? new ArrayList<>() : resolve(tail(inbox.all, after), userId, limit);
     }
 
     public List<Notification> findByType(NotificationType type) {
@@ -44,34 +154,194 @@ public class NotificationRepository {
                 .collect(Collectors.toList());
     }
 
-    public List<Notification> findByStatus(String status) {
-        return notifications.values().stream()
-                .filter(notification -> notification.getStatus().equals(status))
-                .collect(Collectors.toList());
+    public List<Notification> findByStatus(NotificationStatus status) {
+        List<Notification> matches = new ArrayList<>();
+        for (Long id : statusIndex.get(status)) {
+            Notification notification = notifications.get(id);
+            if (notification != null && notification.getStatus() == status) {
+                matches.add(notification);
+            }
+        }
+        return matches;
     }
 
-    public List<Notification> findByPriority(String priority) {
-        return notifications.values().stream()
-                .filter(notification -> notification.getPriority().equals(priority))
-                .collect(Collectors.toList());
+    public List<Notification> findByPriority(NotificationPriority priority) {
+        List<Notification> matches = new ArrayList<>();
+        for (Long id : priorityIndex.get(priority)) {
+            Notification notification = notifications.get(id);
+            if (notification != null && notification.getPriority() == priority) {
+                matches.add(notification);
+            }
+        }
+        return matches;
     }
 
     public List<Notification> findByDateRange(LocalDateTime start, LocalDateTime end) {
-        return notifications.values().stream()
-                .filter(notification -> notification.getCreatedAt().isAfter(start) && 
-                                      notification.getCreatedAt().isBefore(end))
-                .collect(Collectors.toList());
+        return findByDateRange(start, end, null, Integer.MAX_VALUE);
+    }
+
+    // Up to limit notifications created strictly between start and end, newest first, continuing after the cursor
+    public List<Notification> findByDateRange(LocalDateTime start, LocalDateTime end, NotificationCursor after, int limit) {
+        List<Notification> page = new ArrayList<>(Math.min(limit, 64));
+        if (!start.isBefore(end)) {
+            return page;
+        }
+        long lastBucket = after != null ? Math.min(bucketOf(end), bucketOf(after.createdAt())) : bucketOf(end);
+        for (NavigableSet<NotificationCursor> bucket : timeBuckets.subMap(bucketOf(start), true, lastBucket, true)
+                                                                  .descendingMap().values()) {
+            for (NotificationCursor position : tail(bucket, after)) {
+                if (page.size() >= limit) {
+                    return page;
+                }
+                LocalDateTime createdAt = position.createdAt();
+                if (!createdAt.isAfter(start) || !createdAt.isBefore(end)) {
+                    continue;
+                }
+                Notification notification = notifications.get(position.id());
+                if (notification != null) {
+                    page.add(notification);
+                }
+            }
+        }
+        return page;
+    }
+
+    // Deletes every notification created before the cutoff by dropping whole hour buckets; the
+    // bucket holding the cutoff is kept, so up to an hour past the cutoff may survive. Returns the count.
+    // Each bucket is detached from the index atomically before it is walked, so a notification indexed
+    // into that hour afterwards lands in a fresh bucket instead of being lost with the old one. Inbox
+    // entries and counters are then adjusted once per user rather than once per notification.
+    public long deleteBucketsBefore(LocalDateTime cutoff) {
+        long deleted = 0;
+        for (Long hour : new ArrayList<>(timeBuckets.headMap(bucketOf(cutoff)).keySet())) {
+            NavigableSet<NotificationCursor> bucket = timeBuckets.remove(hour);
+            if (bucket == null) {
+                continue; // emptied concurrently
+            }
+            Map<Long, List<IndexKeys>> byUser = new HashMap<>();
+            for (NotificationCursor position : bucket) {
+                IndexKeys keys = detach(position);
+                if (keys != null) {
+                    deleted++;
+                    if (keys.userId() != null) {
+                        byUser.computeIfAbsent(keys.userId(), userId -> new ArrayList<>()).add(keys);
+                    }
+                }
+            }
+            byUser.forEach(this::unindexInbox);
+        }
+        return deleted;
+    }
+
+    // Visits up to limit notifications created before the cutoff, oldest hour bucket first, resuming
+    // after the given position (null starts from the beginning). Returns the last position visited,
+    // or null once nothing older than the cutoff is left to visit. The action may delete what it is given.
+    public NotificationCursor forEachCreatedBefore(LocalDateTime cutoff, NotificationCursor after, int limit,
+                                                   Consumer<Notification> action) {
+        long firstBucket = after != null ? bucketOf(after.createdAt()) : Long.MIN_VALUE;
+        NotificationCursor last = null;
+        int visited = 0;
+        for (Map.Entry<Long, NavigableSet<NotificationCursor>> bucket
+                : timeBuckets.subMap(firstBucket, true, bucketOf(cutoff), true).entrySet()) {
+            // Later buckets hold only newer positions, so the cursor applies to its own bucket alone
+            boolean resumeBucket = after != null && bucket.getKey() == firstBucket;
+            for (NotificationCursor position : resumeBucket ? tail(bucket.getValue(), after) : bucket.getValue()) {
+                if (visited >= limit) {
+                    return last;
+                }
+                last = position;
+                visited++;
+                Notification notification = notifications.get(position.id());
+                if (notification != null && position.createdAt().isBefore(cutoff)) {
+                    action.accept(notification);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Hour buckets currently held, oldest first
+    public List<Long> bucketHours() {
+        return new ArrayList<>(timeBuckets.keySet());
     }
 
     public List<Notification> findUnreadByUserId(Long userId) {
-        return notifications.values().stream()
-                .filter(notification -> notification.getUserId().equals(userId) && 
-                                      !"READ".equals(notification.getStatus()))
-                .collect(Collectors.toList());
+        Inbox inbox = userInboxes.get(userId);
+        return inbox == null ? new ArrayList<>() : resolve(inbox.unread, userId, Integer.MAX_VALUE);
+    }
+
+    public List<Notification> findUnreadByUserId(Long userId, NotificationCursor after, int limit) {
+        Inbox inbox = userInboxes.get(userId);
+        return inbox == null ? new ArrayList<>() : resolve(tail(inbox.unread, after), userId, limit);
+    }
+
+    // Users that currently have at least one notification
+    public Set<Long> findUserIds() {
+        return Collections.unmodifiableSet(userInboxes.keySet());
     }
 
-    public void deleteById(Long id) {
-        notifications.remove(id);
+    public long countUnreadByUserId(Long userId) {
+        Inbox inbox = userInboxes.get(userId);
+        return inbox == null ? 0 : inbox.unreadCount.get();
+    }
+
+    // Checks each user's unread index against the notifications themselves, fixing entries that
+    // disagree with the stored status, then corrects unreadCount where it differs from the index.
+    // Returns the number of users corrected.
+    public int reconcileUnreadCounts() {
+        int corrected = 0;
+        for (Map.Entry<Long, Inbox> entry : userInboxes.entrySet()) {
+            Long userId = entry.getKey();
+            boolean[] drifted = new boolean[1];
+            for (NotificationCursor position : entry.getValue().all) {
+                // Inside the notification's compute its status and inbox entries cannot change, and
+                // taking the inbox from there is the order every writer uses
+                notifications.compute(position.id(), (id, current) -> {
+                    boolean unread = current != null && userId.equals(current.getUserId())
+                            && position.equals(NotificationCursor.of(current))
+                            && current.getStatus() != NotificationStatus.READ;
+                    userInboxes.computeIfPresent(userId, (key, inbox) -> {
+                        if (unread ? inbox.unread.add(position) : inbox.unread.remove(position)) {
+                            drifted[0] = true;
+                        }
+                        return inbox;
+                    });
+                    return current;
+                });
+            }
+            userInboxes.computeIfPresent(userId, (key, inbox) -> {
+                long counted = inbox.unread.size();
+                if (inbox.unreadCount.getAndSet(counted) != counted) {
+                    drifted[0] = true;
+                }
+                return inbox;
+            });
+            if (drifted[0]) {
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    // True if this call removed the notification, false if it was already gone
+    public boolean deleteById(Long id) {
+        boolean[] removed = new boolean[1];
+        RepositoryJournal<Notification> journal = this.journal;
+        Runnable mutation = () -> notifications.computeIfPresent(id, (key, previous) -> {
+            if (journal != null) {
+                journal.logDelete(key);
+            }
+            unindex(key);
+            orderedIds.remove(key);
+            removed[0] = true;
+            return null;
+        });
+        if (journal == null) {
+            mutation.run();
+        } else {
+            journal.mutate(mutation);
+        }
+        return removed[0];
     }
 
     public boolean existsById(Long id) {
@@ -82,10 +352,196 @@ public class NotificationRepository {
         return notifications.size();
     }
 
-    public long countByUserIdAndStatus(Long userId, String status) {
-        return notifications.values().stream()
-                .filter(notification -> notification.getUserId().equals(userId) && 
-                                      notification.getStatus().equals(status))
-                .count();
+    public long countByUserIdAndStatus(Long userId, NotificationStatus status) {
+        Inbox inbox = userInboxes.get(userId);
+        return inbox == null ? 0 : inbox.statusCounts.get(status.code());
+    }
+
+    // =================== Journal support ===================
+    public void attachJournal(RepositoryJournal<Notification> journal) {
+        this.journal = journal;
+    }
+
+    // Returns once this thread's saves and deletes are durable (when journaling with group commit)
+    public void awaitDurable() {
+        RepositoryJournal<Notification> journal = this.journal;
+        if (journal != null) {
+            journal.awaitDurable();
+        }
+    }
+
+    // Applies a recovered record without logging it again
+    public void restore(Notification notification) {
+        put(notification);
+        idGenerator.accumulateAndGet(notification.getId() + 1, Math::max);
+    }
+
+    public void restoreDelete(long id) {
+        remove(id);
+    }
+
+    public Collection<Notification> snapshot() {
+        return Collections.unmodifiableCollection(notifications.values());
+    }
+
+    private void put(Notification notification) {
+        notifications.compute(notification.getId(), (id, previous) -> {
+            unindex(id);
+            index(id, notification);
+            return notification;
+        });
+    }
+
+    private void remove(Long id) {
+        notifications.computeIfPresent(id, (key, previous) -> {
+            unindex(key);
+            orderedIds.remove(key);
+            return null;
+        });
+    }
+
+    private void index(Long id, Notification notification) {
+        IndexKeys keys = new IndexKeys(notification.getUserId(), NotificationCursor.of(notification),
+                                       notification.getStatus(), notification.getPriority());
+        if (keys.status() != null) {
+            statusIndex.get(keys.status()).add(id);
+        }
+        if (keys.priority() != null) {
+            priorityIndex.get(keys.priority()).add(id);
+        }
+        timeBuckets.compute(bucketOf(keys.position().createdAt()), (hour, bucket) -> {
+            NavigableSet<NotificationCursor> updated = bucket != null ? bucket : new ConcurrentSkipListSet<>();
+            updated.add(keys.position());
+            return updated;
+        });
+        if (keys.userId() != null) {
+            userInboxes.compute(keys.userId(), (userId, inbox) -> {
+                Inbox updated = inbox != null ? inbox : new Inbox();
+                updated.all.add(keys.position());
+                if (keys.unread() && updated.unread.add(keys.position())) {
+                    updated.unreadCount.incrementAndGet();
+                }
+                if (keys.status() != null) {
+                    updated.statusCounts.incrementAndGet(keys.status().code());
+                }
+                return updated;
+            });
+        }
+        indexedKeys.put(id, keys);
+        orderedIds.add(id);
+    }
+
+    private void unindex(Long id) {
+        IndexKeys keys = indexedKeys.remove(id);
+        if (keys == null) {
+            return;
+        }
+        if (keys.status() != null) {
+            statusIndex.get(keys.status()).remove(id);
+        }
+        if (keys.priority() != null) {
+            priorityIndex.get(keys.priority()).remove(id);
+        }
+        timeBuckets.computeIfPresent(bucketOf(keys.position().createdAt()), (hour, bucket) -> {
+            bucket.remove(keys.position());
+            return bucket.isEmpty() ? null : bucket;
+        });
+        if (keys.userId() != null) {
+            userInboxes.computeIfPresent(keys.userId(), (userId, inbox) -> {
+                inbox.all.remove(keys.position());
+                if (keys.unread() && inbox.unread.remove(keys.position())) {
+                    inbox.unreadCount.decrementAndGet();
+                }
+                if (keys.status() != null) {
+                    inbox.statusCounts.decrementAndGet(keys.status().code());
+                }
+                return inbox.all.isEmpty() ? null : inbox;
+            });
+        }
+    }
+
+    // Removes the notification at the position from the primary map and every index except its
+    // inbox, journaling the delete. Returns its index keys, or null if it is gone or has moved.
+    // Runs in the entry's compute like update and deleteById, so a transition racing the drop
+    // either lands first (and is dropped with it) or finds the notification gone.
+    private IndexKeys detach(NotificationCursor position) {
+        IndexKeys[] detached = new IndexKeys[1];
+        RepositoryJournal<Notification> journal = this.journal;
+        Runnable mutation = () -> notifications.computeIfPresent(position.id(), (id, previous) -> {
+            IndexKeys keys = indexedKeys.get(id);
+            if (keys == null || !position.equals(keys.position())) {
+                return previous;
+            }
+            if (journal != null) {
+                journal.logDelete(id);
+            }
+            indexedKeys.remove(id);
+            if (keys.status() != null) {
+                statusIndex.get(keys.status()).remove(id);
+            }
+            if (keys.priority() != null) {
+                priorityIndex.get(keys.priority()).remove(id);
+            }
+            // A transition that reindexed after the bucket was dropped re-created it; take that out too
+            timeBuckets.computeIfPresent(bucketOf(position.createdAt()), (hour, bucket) -> {
+                bucket.remove(position);
+                return bucket.isEmpty() ? null : bucket;
+            });
+            orderedIds.remove(id);
+            detached[0] = keys;
+            return null;
+        });
+        if (journal == null) {
+            mutation.run();
+        } else {
+            journal.mutate(mutation);
+        }
+        return detached[0];
+    }
+
+    private void unindexInbox(Long userId, List<IndexKeys> removed) {
+        userInboxes.computeIfPresent(userId, (id, inbox) -> {
+            long unread = 0;
+            int[] statusCounts = new int[NotificationStatus.values().length];
+            for (IndexKeys keys : removed) {
+                inbox.all.remove(keys.position());
+                if (keys.unread() && inbox.unread.remove(keys.position())) {
+                    unread++;
+                }
+                if (keys.status() != null) {
+                    statusCounts[keys.status().code()]++;
+                }
+            }
+            inbox.unreadCount.addAndGet(-unread);
+            for (int code = 0; code < statusCounts.length; code++) {
+                if (statusCounts[code] > 0) {
+                    inbox.statusCounts.addAndGet(code, -statusCounts[code]);
+                }
+            }
+            return inbox.all.isEmpty() ? null : inbox;
+        });
+    }
+
+    private static long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    private static NavigableSet<NotificationCursor> tail(NavigableSet<NotificationCursor> set, NotificationCursor after) {
+        return after == null ? set : set.tailSet(after, false);
+    }
+
+    // Maps index positions back to notifications, skipping entries a concurrent writer has just moved
+    private List<Notification> resolve(Iterable<NotificationCursor> positions, Long userId, int limit) {
+        List<Notification> page = new ArrayList<>(Math.min(limit, 64));
+        for (NotificationCursor position : positions) {
+            if (page.size() >= limit) {
+                break;
+            }
+            Notification notification = notifications.get(position.id());
+            if (notification != null && userId.equals(notification.getUserId())) {
+                page.add(notification);
+            }
+        }
+        return page;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.banking.notification.sender;
+
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationType;
+
+import java.util.List;
+
+/**
+ * Provider integration for a batched channel. Register an implementation as a bean to
+ * replace the recording stub for its channel; DeliveryBatcher prefers any sender that is not
+ * a RecordingChannelSender, and otherwise the first sender found per channel wins.
+ */
+public interface ChannelSender {
+
+    NotificationType channel();
+
+    // Submits the whole batch in one provider call and returns one result per item, in order.
+    // Throwing means the call as a whole failed, and every item is retried.
+    List<DeliveryResult> send(List<Notification> batch);
+}
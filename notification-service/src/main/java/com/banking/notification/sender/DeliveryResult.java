@@ -0,0 +1,8 @@
+package com.banking.notification.sender;
+
+// Per-item outcome of a provider batch call
+public enum DeliveryResult {
+    DELIVERED,
+    REJECTED, // permanent failure, e.g. an invalid address
+    RETRY     // transient failure; the item is resubmitted with backoff
+}
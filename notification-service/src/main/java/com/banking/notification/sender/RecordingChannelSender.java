@@ -0,0 +1,61 @@
+package com.banking.notification.sender;
+
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationType;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local stand-in for a bulk provider: accepts every item with a recipient and remembers recent batches
+public class RecordingChannelSender implements ChannelSender {
+    private static final int RECORDED_BATCHES = 100;
+
+    private final NotificationType channel;
+    private final Deque<List<Long>> recentBatches = new ConcurrentLinkedDeque<>();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong itemsSent = new AtomicLong();
+
+    public RecordingChannelSender(NotificationType channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public NotificationType channel() {
+        return channel;
+    }
+
+    @Override
+    public List<DeliveryResult> send(List<Notification> batch) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        List<DeliveryResult> results = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            ids.add(notification.getId());
+            boolean addressed = notification.getRecipient() != null && !notification.getRecipient().isBlank();
+            results.add(addressed ? DeliveryResult.DELIVERED : DeliveryResult.REJECTED);
+        }
+        recentBatches.addLast(ids);
+        while (recentBatches.size() > RECORDED_BATCHES) {
+            recentBatches.pollFirst();
+        }
+        batchesSent.incrementAndGet();
+        itemsSent.addAndGet(batch.size());
+        System.out.println("Simulating sending " + channel + " batch of " + batch.size());
+        return results;
+    }
+
+    // Notification ids of the most recent batches, oldest first
+    public List<List<Long>> recordedBatches() {
+        return new ArrayList<>(recentBatches);
+    }
+
+    public long batchesSent() {
+        return batchesSent.get();
+    }
+
+    public long itemsSent() {
+        return itemsSent.get();
+    }
+}
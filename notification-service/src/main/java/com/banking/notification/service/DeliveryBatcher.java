@@ -0,0 +1,270 @@
+package com.banking.notification.service;
+
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationType;
+import com.banking.notification.sender.ChannelSender;
+import com.banking.notification.sender.DeliveryResult;
+import com.banking.notification.sender.RecordingChannelSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces notifications for bulk channels (those with a ChannelSender) into batches,
+ * closing a batch at max-size items or linger-ms after its first item. A lane buffers
+ * each priority separately and fills batches by weighted fair queuing with the
+ * dispatcher's weights, so URGENT items are not stuck behind a LOW backlog; a batch
+ * holding an URGENT item is sent without waiting out the linger. Each channel has
+ * one flusher thread. It sends a batch in a single provider call and goes straight on to
+ * the next one; items that come back RETRY are put back into the lane by a scheduler after
+ * an exponential backoff. Each item's future completes with true (delivered) or false
+ * (rejected, or out of retries), and the caller writes the status back.
+ */
+@Component
+public class DeliveryBatcher {
+
+    @Autowired
+    private List<ChannelSender> senders;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${notification.batch.linger-ms:50}")
+    private long lingerMs;
+
+    @Value("${notification.batch.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${notification.batch.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${notification.batch.initial-backoff-ms:100}")
+    private long initialBackoffMs;
+
+    @Value("${notification.batch.max-backoff-ms:5000}")
+    private long maxBackoffMs;
+
+    private final Map<NotificationType, Lane> lanes = new EnumMap<>(NotificationType.class);
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running = true;
+
+    // attempt counts the provider calls the item has already been part of; priority is the
+    // dispatcher's scheduling class
+    private record Pending(Notification notification, CompletableFuture<Boolean> result, int priority,
+                           long submittedNanos, int attempt) {}
+
+    private final class Lane implements Runnable {
+        final ChannelSender sender;
+        final WeightedFairQueue<Pending> buffer = new WeightedFairQueue<>(notificationDispatcher.weights(),
+                                                                          bufferCapacity);
+        final Timer[] sendWait = new Timer[NotificationDispatcher.PRIORITIES.length];
+        // Retries whose backoff has passed but that did not fit back into the full buffer
+        final Queue<Pending> overflow = new ConcurrentLinkedQueue<>();
+        // Retries waiting out their backoff, so shutdown can fail them
+        final Set<Pending> backingOff = ConcurrentHashMap.newKeySet();
+        final Thread flusher;
+
+        Lane(ChannelSender sender) {
+            this.sender = sender;
+            this.flusher = new Thread(this, "notify-batch-" + sender.channel().name().toLowerCase());
+            this.flusher.setDaemon(true);
+            for (int i = 0; i < sendWait.length; i++) {
+                sendWait[i] = Timer.builder("notification.batch.send.wait")
+                        .description("Time from submission to the batcher until the first provider call carrying it")
+                        .tag("channel", sender.channel().name())
+                        .tag("priority", NotificationDispatcher.PRIORITIES[i].name())
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+            while (running || buffer.size() > 0 || !overflow.isEmpty()) {
+                try {
+                    Pending first = overflow.poll();
+                    if (first == null) {
+                        first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                    }
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    Pending retry;
+                    while (batch.size() < maxBatchSize && (retry = overflow.poll()) != null) {
+                        batch.add(retry);
+                    }
+                    boolean urgent = batch.stream().anyMatch(pending -> pending.priority() == 0);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                    while (batch.size() < maxBatchSize) {
+                        long wait = urgent ? 0 : Math.max(0, deadline - System.nanoTime());
+                        Pending next = buffer.poll(wait, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        urgent |= next.priority() == 0;
+                    }
+                    send(this, batch);
+                } catch (InterruptedException e) {
+                    batch.forEach(pending -> pending.result().complete(false));
+                    Thread.currentThread().interrupt();
+                    break;
+                } finally {
+                    batch.clear();
+                }
+            }
+            buffer.close();
+            try {
+                Pending abandoned;
+                while ((abandoned = buffer.poll(0, TimeUnit.NANOSECONDS)) != null
+                        || (abandoned = overflow.poll()) != null) {
+                    abandoned.result().complete(false);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Called by the retry scheduler once the backoff has passed; never blocks it
+        void requeue(Pending pending) {
+            if (backingOff.remove(pending) && !buffer.offer(pending, pending.priority())) {
+                overflow.add(pending); // the buffer is full, so the flusher is busy and picks it up soon
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "notify-batch-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A provider sender replaces the recording stub for its channel whatever the bean order
+        Map<NotificationType, ChannelSender> chosen = new EnumMap<>(NotificationType.class);
+        for (ChannelSender sender : senders) {
+            ChannelSender current = chosen.get(sender.channel());
+            if (current == null || (current instanceof RecordingChannelSender
+                                    && !(sender instanceof RecordingChannelSender))) {
+                chosen.put(sender.channel(), sender);
+            }
+        }
+        chosen.forEach((channel, sender) -> lanes.put(channel, new Lane(sender)));
+        for (Lane lane : lanes.values()) {
+            lane.flusher.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        for (Lane lane : lanes.values()) {
+            lane.buffer.close(); // releases submitters blocked on a full buffer
+            lane.backingOff.forEach(pending -> pending.result().complete(false));
+            lane.flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public boolean handles(NotificationType type) {
+        return lanes.containsKey(type);
+    }
+
+    // Blocks while the channel's buffer for the notification's priority is full, which in turn
+    // backs up the dispatcher queue
+    public CompletableFuture<Boolean> submit(Notification notification) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        int priority = NotificationDispatcher.priorityOf(notification.getPriority());
+        try {
+            Pending pending = new Pending(notification, result, priority, System.nanoTime(), 0);
+            if (!lanes.get(notification.getType()).buffer.put(pending, priority)) {
+                result.complete(false); // shutting down
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // One provider call. Items to retry are handed to the retry scheduler, so the flusher never
+    // sleeps through a backoff while the rest of the lane waits.
+    private void send(Lane lane, List<Pending> batch) {
+        List<Pending> retry = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            if (pending.attempt() == 0) {
+                lane.sendWait[pending.priority()].record(now - pending.submittedNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        try {
+            List<DeliveryResult> results = lane.sender.send(notificationsOf(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                DeliveryResult result = i < results.size() ? results.get(i) : DeliveryResult.RETRY;
+                switch (result) {
+                    case DELIVERED:
+                        batch.get(i).result().complete(true);
+                        break;
+                    case REJECTED:
+                        batch.get(i).result().complete(false);
+                        break;
+                    default:
+                        retry.add(batch.get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(lane.sender.channel() + " batch of " + batch.size() + " failed: " + e.getMessage());
+            retry = batch;
+        }
+        for (Pending pending : retry) {
+            if (pending.attempt() >= maxRetries || !running) {
+                pending.result().complete(false);
+                continue;
+            }
+            Pending next = new Pending(pending.notification(), pending.result(), pending.priority(),
+                                       pending.submittedNanos(), pending.attempt() + 1);
+            long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(pending.attempt(), 20));
+            lane.backingOff.add(next);
+            try {
+                retryScheduler.schedule(() -> lane.requeue(next), backoffMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                lane.backingOff.remove(next);
+                next.result().complete(false); // shutting down
+            }
+        }
+    }
+
+    private static List<Notification> notificationsOf(List<Pending> pending) {
+        List<Notification> notifications = new ArrayList<>(pending.size());
+        for (Pending p : pending) {
+            notifications.add(p.notification());
+        }
+        return notifications;
+    }
+}
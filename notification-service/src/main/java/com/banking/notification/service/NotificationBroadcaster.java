@@ -0,0 +1,304 @@
+package com.banking.notification.service;
+
+import com.banking.notification.client.UserServiceClient;
+import com.banking.notification.exception.DispatchRejectedException;
+import com.banking.notification.model.BroadcastJob;
+import com.banking.notification.model.BroadcastRequest;
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationType;
+import com.banking.notification.model.User;
+import com.banking.notification.model.UserSelector;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Fans a notification template out to the users a selector matches. The selector is
+ * walked lazily and notifications are created and dispatched one chunk at a time, so
+ * only a chunk of the fan-out is held in memory. When the channel queues are full, the
+ * broadcaster waits for space instead of failing the campaign.
+ *
+ * Users are read from user-service a page at a time: ALL and RANGE walk its keyset pages,
+ * LIST resolves its ids in bulk lookups. Only users that exist are notified.
+ */
+@Component
+public class NotificationBroadcaster {
+    private static final int RETAINED_JOBS = 100;
+    private static final int USER_PAGE_SIZE = 1000; // user-service's largest page and bulk lookup
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Value("${notification.broadcast.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${notification.broadcast.concurrency:2}")
+    private int concurrency;
+
+    @Value("${notification.broadcast.backpressure-wait-ms:5}")
+    private long backpressureWaitMs;
+
+    // Largest RANGE width or LIST size accepted
+    @Value("${notification.broadcast.max-selector-size:1000000}")
+    private long maxSelectorSize;
+
+    private final Map<Long, BroadcastJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobIdGenerator = new AtomicLong(1);
+    private ExecutorService runner;
+
+    // exists is false for a LIST id that user-service does not know
+    private record Target(Long userId, String recipient, boolean exists) {}
+
+    @PostConstruct
+    public void start() {
+        runner = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    // Validates the request and starts the fan-out in the background
+    public BroadcastJob broadcast(BroadcastRequest request) {
+        UserSelector selector = request.getSelector();
+        selector.validate();
+        long size = selector.getMode() == UserSelector.Mode.RANGE
+                ? selector.getToUserId() - selector.getFromUserId() + 1
+                : selector.getMode() == UserSelector.Mode.LIST ? selector.getUserIds().size() : 0;
+        if (size > maxSelectorSize || size < 0) { // negative: the range overflowed
+            throw new IllegalArgumentException("Selector matches more than " + maxSelectorSize + " users");
+        }
+        BroadcastJob job = new BroadcastJob(jobIdGenerator.getAndIncrement(), request.getType(), request.getTitle());
+        jobs.put(job.getId(), job);
+        pruneFinishedJobs();
+        runner.execute(() -> run(job, request));
+        return job;
+    }
+
+    public Optional<BroadcastJob> getJob(Long id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(BroadcastJob job, BroadcastRequest request) {
+        job.markAsRunning();
+        try {
+            Iterator<Target> targets = targets(request, job);
+            List<Notification> chunk = new ArrayList<>(chunkSize);
+            while (targets.hasNext()) {
+                long skipped = 0;
+                while (chunk.size() < chunkSize && targets.hasNext()) {
+                    Target target = targets.next();
+                    if (!target.exists() || needsRecipient(request.getType()) && target.recipient() == null) {
+                        skipped++;
+                        continue;
+                    }
+                    chunk.add(fromTemplate(request, target));
+                }
+                for (Notification notification : chunk) {
+                    notificationService.createNotification(notification);
+                }
+                notificationService.awaitDurable(); // one fsync wait per chunk, before anything is sent
+                long dispatched = 0;
+                for (Notification notification : chunk) {
+                    if (dispatch(notification)) {
+                        dispatched++;
+                    }
+                }
+                job.recordChunk(chunk.size(), dispatched, skipped);
+                chunk.clear();
+            }
+            if (job.getTargeted() == null) {
+                job.setTargeted(job.getCreated() + job.getSkipped());
+            }
+            job.markAsCompleted();
+            System.out.println("Broadcast " + job.getId() + " created " + job.getCreated() + " notifications");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.markAsFailed("Interrupted");
+        } catch (RuntimeException e) {
+            job.markAsFailed(e.getMessage());
+            System.err.println("Broadcast " + job.getId() + " failed: " + e.getMessage());
+        }
+    }
+
+    // Waits out a full channel queue; false if the notification could not be queued for another reason
+    private boolean dispatch(Notification notification) throws InterruptedException {
+        while (true) {
+            try {
+                notificationService.sendNotification(notification.getId());
+                return true;
+            } catch (DispatchRejectedException e) {
+                Thread.sleep(backpressureWaitMs);
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    private Iterator<Target> targets(BroadcastRequest request, BroadcastJob job) {
+        UserSelector selector = request.getSelector();
+        NotificationType type = request.getType();
+        if (selector.getMode() == UserSelector.Mode.LIST) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(selector.getUserIds()));
+            job.setTargeted((long) ids.size());
+            return listed(ids, type);
+        }
+        Iterator<User> users;
+        if (selector.getMode() == UserSelector.Mode.RANGE) {
+            long to = selector.getToUserId();
+            users = paged(selector.getFromUserId() - 1, to);
+        } else {
+            users = paged(null, Long.MAX_VALUE);
+        }
+        return map(users, user -> new Target(user.getId(), recipientOf(user, type), true));
+    }
+
+    // Existing users with after < id <= to, in id order, read from user-service one page at a time
+    private Iterator<User> paged(Long after, long to) {
+        return new Iterator<>() {
+            private Long cursor = after;
+            private Iterator<User> page = Collections.emptyIterator();
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && !exhausted) {
+                    List<User> users = userServiceClient.getUsersPage(cursor, USER_PAGE_SIZE);
+                    List<User> inRange = new ArrayList<>(users.size());
+                    for (User user : users) {
+                        if (user.getId() > to) {
+                            exhausted = true;
+                            break;
+                        }
+                        inRange.add(user);
+                    }
+                    if (users.size() < USER_PAGE_SIZE) {
+                        exhausted = true;
+                    }
+                    if (!users.isEmpty()) {
+                        cursor = users.get(users.size() - 1).getId();
+                    }
+                    page = inRange.iterator();
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public User next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    // The given ids in order, resolved with one bulk lookup per page of ids
+    private Iterator<Target> listed(List<Long> ids, NotificationType type) {
+        return new Iterator<>() {
+            private int offset;
+            private Iterator<Target> page = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!page.hasNext() && offset < ids.size()) {
+                    List<Long> slice = ids.subList(offset, Math.min(ids.size(), offset + USER_PAGE_SIZE));
+                    offset += slice.size();
+                    Map<Long, User> found = new HashMap<>();
+                    for (User user : userServiceClient.getUsersByIds(slice)) {
+                        found.put(user.getId(), user);
+                    }
+                    List<Target> targets = new ArrayList<>(slice.size());
+                    for (Long id : slice) {
+                        User user = found.get(id);
+                        targets.add(new Target(id, recipientOf(user, type), user != null));
+                    }
+                    page = targets.iterator();
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public Target next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    private static <S> Iterator<Target> map(Iterator<S> source, Function<S, Target> mapper) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Target next() {
+                return mapper.apply(source.next());
+            }
+        };
+    }
+
+    private static boolean needsRecipient(NotificationType type) {
+        return type == NotificationType.EMAIL || type == NotificationType.SMS;
+    }
+
+    private static String recipientOf(User user, NotificationType type) {
+        if (user == null) {
+            return null;
+        }
+        if (type == NotificationType.EMAIL) {
+            return user.getEmail();
+        }
+        return type == NotificationType.SMS ? user.getPhoneNumber() : null;
+    }
+
+    private static Notification fromTemplate(BroadcastRequest request, Target target) {
+        Notification notification = new Notification();
+        notification.setUserId(target.userId());
+        notification.setType(request.getType());
+        notification.setTitle(request.getTitle());
+        notification.setMessage(request.getMessage());
+        notification.setRecipient(target.recipient());
+        if (request.getPriority() != null) {
+            notification.setPriority(request.getPriority());
+        }
+        return notification;
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() <= RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(BroadcastJob::isFinished)
+                .map(BroadcastJob::getId)
+                .sorted()
+                .limit(jobs.size() - RETAINED_JOBS)
+                .forEach(jobs::remove);
+    }
+}
@@ -0,0 +1,205 @@
+package com.banking.notification.service;
+
+import com.banking.notification.exception.DispatchRejectedException;
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationPriority;
+import com.banking.notification.model.NotificationType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs notification delivery off the request thread. Each channel has its own bounded
+ * queue and worker pool, so a slow channel (say SMS) backs up only itself. A full queue
+ * is rejected straight away rather than blocking the caller.
+ *
+ * Within a channel, work is scheduled by priority with weighted fair queuing (see
+ * WeightedFairQueue). Each priority has its own capacity, so a LOW backlog can neither
+ * crowd URGENT out of the queue nor hold it behind itself.
+ */
+@Component
+public class NotificationDispatcher {
+    // Scheduling classes, most important first; a missing priority is treated as MEDIUM
+    static final NotificationPriority[] PRIORITIES = {
+            NotificationPriority.URGENT, NotificationPriority.HIGH, NotificationPriority.MEDIUM, NotificationPriority.LOW};
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${notification.dispatch.workers-per-channel:4}")
+    private int workersPerChannel;
+
+    @Value("${notification.dispatch.weights.urgent:8}")
+    private int urgentWeight;
+
+    @Value("${notification.dispatch.weights.high:4}")
+    private int highWeight;
+
+    @Value("${notification.dispatch.weights.medium:2}")
+    private int mediumWeight;
+
+    @Value("${notification.dispatch.weights.low:1}")
+    private int lowWeight;
+
+    private final Map<NotificationType, Channel> channels = new EnumMap<>(NotificationType.class);
+    // Ids queued or being delivered, so one notification cannot be dispatched twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private record Task(Notification notification, Function<Notification, CompletionStage<?>> delivery,
+                        int priority, long enqueuedNanos) {}
+
+    private final class Channel {
+        final NotificationType type;
+        final WeightedFairQueue<Task> queue;
+        final List<Thread> workers = new ArrayList<>();
+        final Timer[] queueWait = new Timer[PRIORITIES.length];
+        final Timer[] deliveryLatency = new Timer[PRIORITIES.length];
+
+        Channel(NotificationType type, int[] weights) {
+            this.type = type;
+            this.queue = new WeightedFairQueue<>(weights, queueCapacity);
+            String channel = type.name();
+            for (int i = 0; i < PRIORITIES.length; i++) {
+                int priority = i;
+                Gauge.builder("notification.dispatch.queue.depth", queue, q -> q.size(priority))
+                        .description("Notifications waiting for a delivery worker")
+                        .tag("channel", channel).tag("priority", PRIORITIES[i].name())
+                        .register(meterRegistry);
+                queueWait[i] = Timer.builder("notification.dispatch.queue.wait")
+                        .description("Time from dispatch until a worker picks the notification up")
+                        .tag("channel", channel).tag("priority", PRIORITIES[i].name())
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry);
+                deliveryLatency[i] = Timer.builder("notification.dispatch.latency")
+                        .description("Time from dispatch until the delivery outcome is written back")
+                        .tag("channel", channel).tag("priority", PRIORITIES[i].name())
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry);
+            }
+            for (int i = 1; i <= workersPerChannel; i++) {
+                Thread worker = new Thread(this::work, "notify-" + channel.toLowerCase() + "-" + i);
+                worker.setDaemon(true);
+                workers.add(worker);
+            }
+        }
+
+        void work() {
+            try {
+                while (true) {
+                    Task task = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        if (queue.isClosed()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    queueWait[task.priority()].record(System.nanoTime() - task.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                    run(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void run(Task task) {
+            Long id = task.notification().getId();
+            CompletionStage<?> stage;
+            try {
+                stage = task.delivery().apply(task.notification());
+            } catch (RuntimeException e) {
+                System.err.println("Delivery of notification " + id + " failed: " + e.getMessage());
+                inFlight.remove(id);
+                return;
+            }
+            stage.whenComplete((result, error) -> {
+                if (error != null) {
+                    System.err.println("Delivery of notification " + id + " failed: " + error.getMessage());
+                }
+                deliveryLatency[task.priority()].record(System.nanoTime() - task.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                inFlight.remove(id);
+            });
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        int[] weights = weights();
+        for (NotificationType type : NotificationType.values()) {
+            channels.put(type, new Channel(type, weights));
+        }
+        for (Channel channel : channels.values()) {
+            channel.workers.forEach(Thread::start);
+        }
+    }
+
+    // Stops accepting work and lets the workers drain what is already queued
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (Channel channel : channels.values()) {
+            channel.queue.close();
+        }
+        for (Channel channel : channels.values()) {
+            for (Thread worker : channel.workers) {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            }
+        }
+    }
+
+    // Queues the notification for delivery on its channel's workers. The delivery may finish
+    // asynchronously; the notification counts as in flight until its stage completes.
+    public void dispatch(Notification notification, Function<Notification, CompletionStage<?>> delivery) {
+        Long id = notification.getId();
+        if (!inFlight.add(id)) {
+            throw new RuntimeException("Notification already queued for delivery");
+        }
+        int priority = priorityOf(notification.getPriority());
+        Task task = new Task(notification, delivery, priority, System.nanoTime());
+        if (!channels.get(notification.getType()).queue.offer(task, priority)) {
+            inFlight.remove(id);
+            throw new DispatchRejectedException(notification.getType());
+        }
+    }
+
+    // Weighted fair queuing weights by scheduling class; DeliveryBatcher's lanes use the same ones
+    int[] weights() {
+        return new int[] {urgentWeight, highWeight, mediumWeight, lowWeight};
+    }
+
+    public int queueDepth(NotificationType type) {
+        WeightedFairQueue<Task> queue = channels.get(type).queue;
+        int depth = 0;
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            depth += queue.size(i);
+        }
+        return depth;
+    }
+
+    // Scheduling class of a priority, an index into PRIORITIES
+    static int priorityOf(NotificationPriority priority) {
+        NotificationPriority effective = priority != null ? priority : NotificationPriority.MEDIUM;
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            if (PRIORITIES[i] == effective) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unscheduled priority: " + effective);
+    }
+}
@@ -0,0 +1,192 @@
+package com.banking.notification.service;
+
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationCursor;
+import com.banking.notification.model.NotificationStatus;
+import com.banking.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the notification store from growing without bound.
+ *
+ * TTL compaction evicts READ notifications once they were read longer ago than read-ttl-days,
+ * and SENT ones once they were sent longer ago than sent-ttl-days (createdAt stands in when
+ * the timestamp is missing). Both timestamps are at or after createdAt, so only the hour
+ * buckets older than a status's TTL can hold its expired notifications. Each status walks its
+ * own buckets a slice at a time, resuming where its previous slice stopped, so each run does a
+ * small bounded amount of work instead of one long sweep. A status that finishes a pass rests
+ * for interval-ms before starting the next one: it has just evicted everything that was due,
+ * and rescanning straight away would only revisit what cannot expire yet. Evictions go through
+ * deleteNotification.
+ *
+ * Hard retention, when max-age-days is set, drops whole hour buckets regardless of status.
+ */
+@Component
+public class NotificationRetention {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.retention.max-age-days:0}")
+    private long maxAgeDays;
+
+    @Value("${notification.retention.interval-ms:3600000}")
+    private long intervalMs;
+
+    // 0 keeps notifications in that status forever
+    @Value("${notification.retention.read-ttl-days:30}")
+    private long readTtlDays;
+
+    @Value("${notification.retention.sent-ttl-days:90}")
+    private long sentTtlDays;
+
+    @Value("${notification.retention.compaction.slice-size:500}")
+    private int sliceSize;
+
+    @Value("${notification.retention.compaction.interval-ms:200}")
+    private long compactionIntervalMs;
+
+    private final Map<NotificationStatus, Long> ttlDays = new EnumMap<>(NotificationStatus.class);
+    private final Map<NotificationStatus, Counter> reclaimed = new EnumMap<>(NotificationStatus.class);
+    private Counter bucketDrops;
+    private Timer sliceTimer;
+    private ScheduledExecutorService scheduler;
+    // Per status, only touched by the scheduler thread: where the current pass resumes, and
+    // when (System.nanoTime) a status that finished its pass may start the next one
+    private final Map<NotificationStatus, NotificationCursor> resumeAfter = new EnumMap<>(NotificationStatus.class);
+    private final Map<NotificationStatus, Long> restingUntil = new EnumMap<>(NotificationStatus.class);
+
+    @PostConstruct
+    public void start() {
+        if (readTtlDays > 0) {
+            ttlDays.put(NotificationStatus.READ, readTtlDays);
+        }
+        if (sentTtlDays > 0) {
+            ttlDays.put(NotificationStatus.SENT, sentTtlDays);
+        }
+        for (NotificationStatus status : ttlDays.keySet()) {
+            reclaimed.put(status, Counter.builder("notification.retention.reclaimed")
+                    .description("Notifications evicted by TTL compaction")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        bucketDrops = Counter.builder("notification.retention.dropped")
+                .description("Notifications removed by hard max-age retention")
+                .register(meterRegistry);
+        sliceTimer = Timer.builder("notification.retention.slice")
+                .description("Time spent in one compaction slice")
+                .register(meterRegistry);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        if (!ttlDays.isEmpty()) {
+            scheduler.scheduleWithFixedDelay(this::compactSlice, compactionIntervalMs, compactionIntervalMs,
+                                             TimeUnit.MILLISECONDS);
+        }
+        if (maxAgeDays > 0) {
+            scheduler.scheduleWithFixedDelay(this::purge, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    // Examines at most slice-size notifications per status that is not resting and evicts the
+    // expired ones; returns the number evicted
+    public int compactSlice() {
+        try {
+            long start = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            int[] evicted = new int[1];
+            for (Map.Entry<NotificationStatus, Long> entry : ttlDays.entrySet()) {
+                NotificationStatus status = entry.getKey();
+                Long restEnd = restingUntil.get(status);
+                if (restEnd != null && start - restEnd < 0) {
+                    continue;
+                }
+                NotificationCursor resumed = notificationRepository.forEachCreatedBefore(
+                        now.minusDays(entry.getValue()), resumeAfter.get(status), sliceSize,
+                        notification -> {
+                            if (notification.getStatus() == status && isExpired(notification, status, now)
+                                    && evict(notification)) {
+                                reclaimed.get(status).increment();
+                                evicted[0]++;
+                            }
+                        });
+                if (resumed == null) {
+                    resumeAfter.remove(status);
+                    restingUntil.put(status, start + TimeUnit.MILLISECONDS.toNanos(intervalMs));
+                } else {
+                    resumeAfter.put(status, resumed);
+                    restingUntil.remove(status);
+                }
+            }
+            sliceTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return evicted[0];
+        } catch (RuntimeException e) {
+            System.err.println("Notification compaction failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public long purge() {
+        try {
+            long deleted = notificationRepository.deleteBucketsBefore(LocalDateTime.now().minusDays(maxAgeDays));
+            if (deleted > 0) {
+                bucketDrops.increment(deleted);
+                System.out.println("Retention dropped " + deleted + " notifications older than " + maxAgeDays + " days");
+            }
+            return deleted;
+        } catch (RuntimeException e) {
+            System.err.println("Notification retention failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private boolean isExpired(Notification notification, NotificationStatus status, LocalDateTime now) {
+        Long ttl = status != null ? ttlDays.get(status) : null;
+        LocalDateTime since = ttl != null ? statusSince(notification, status) : null;
+        return since != null && since.isBefore(now.minusDays(ttl));
+    }
+
+    // When the notification entered its current status
+    private static LocalDateTime statusSince(Notification notification, NotificationStatus status) {
+        LocalDateTime since = null;
+        if (status == NotificationStatus.READ) {
+            since = notification.getReadAt();
+        } else if (status == NotificationStatus.SENT) {
+            since = notification.getSentAt();
+        }
+        return since != null ? since : notification.getCreatedAt();
+    }
+
+    private boolean evict(Notification notification) {
+        try {
+            notificationService.deleteNotification(notification.getId());
+            return true;
+        } catch (RuntimeException e) {
+            return false; // deleted concurrently
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.banking.notification.service;
 
 import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationCursor;
+import com.banking.notification.model.NotificationPage;
+import com.banking.notification.model.NotificationPriority;
+import com.banking.notification.model.NotificationStatus;
 import com.banking.notification.model.NotificationType;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,12 +15,16 @@ public interface NotificationService {
     Notification sendNotification(Long notificationId);
     Optional<Notification> getNotificationById(Long id);
     List<Notification> getAllNotifications();
+    List<Notification> getNotificationsPage(Long after, int limit);
     List<Notification> getNotificationsByUserId(Long userId);
+    NotificationPage getNotificationsByUserId(Long userId, NotificationCursor after, int limit);
     List<Notification> getNotificationsByType(NotificationType type);
-    List<Notification> getNotificationsByStatus(String status);
-    List<Notification> getNotificationsByPriority(String priority);
+    List<Notification> getNotificationsByStatus(NotificationStatus status);
+    List<Notification> getNotificationsByPriority(NotificationPriority priority);
     List<Notification> getNotificationsByDateRange(LocalDateTime start, LocalDateTime end);
+    NotificationPage getNotificationsByDateRange(LocalDateTime start, LocalDateTime end, NotificationCursor after, int limit);
     List<Notification> getUnreadNotificationsByUserId(Long userId);
+    NotificationPage getUnreadNotificationsByUserId(Long userId, NotificationCursor after, int limit);
     Notification markAsRead(Long notificationId);
     void deleteNotification(Long id);
     long getUnreadCount(Long userId);
@@ -24,4 +32,6 @@ public interface NotificationService {
     Notification sendSMSNotification(Long userId, String title, String message, String phoneNumber);
     Notification sendPushNotification(Long userId, String title, String message);
     Notification sendInAppNotification(Long userId, String title, String message);
+    // Blocks until every write made by the calling thread so far is durable
+    void awaitDurable();
 }
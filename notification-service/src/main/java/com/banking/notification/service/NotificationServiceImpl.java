@@ -1,6 +1,11 @@
 package com.banking.notification.service;
 
+import com.banking.notification.exception.DispatchRejectedException;
 import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationCursor;
+import com.banking.notification.model.NotificationPage;
+import com.banking.notification.model.NotificationPriority;
+import com.banking.notification.model.NotificationStatus;
 import com.banking.notification.model.NotificationType;
 import com.banking.notification.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +14,9 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
@@ -16,11 +24,22 @@ public class NotificationServiceImpl implements NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private DeliveryBatcher deliveryBatcher;
+
+    @Autowired
+    private NotificationStreamBroker notificationStreamBroker;
+
     @Override
     public Notification createNotification(Notification notification) {
         notification.setCreatedAt(LocalDateTime.now());
-        notification.setStatus("PENDING");
-        return notificationRepository.save(notification);
+        notification.setStatus(NotificationStatus.PENDING);
+        notificationRepository.save(notification);
+        notificationStreamBroker.publish(notification);
+        return notification;
     }
 
     @Override
@@ -28,37 +47,12 @@ public class NotificationServiceImpl implements NotificationService {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
 
-        if (!"PENDING".equals(notification.getStatus())) {
+        if (notification.getStatus() != NotificationStatus.PENDING) {
             throw new RuntimeException("Notification already processed");
         }
 
-        try {
-            // Simulate sending notification based on type
-            switch (notification.getType()) {
-                case EMAIL:
-                    simulateEmailSending(notification);
-                    break;
-                case SMS:
-                    simulateSMSSending(notification);
-                    break;
-                case PUSH:
-                    simulatePushNotificationSending(notification);
-                    break;
-                case IN_APP:
-                    // In-app notifications are immediately available
-                    break;
-                default:
-                    throw new RuntimeException("Unsupported notification type");
-            }
-            notification.markAsSent();
-            System.out.println("Sent " + notification.getType() + " notification: " + notification.getTitle());
-        } catch (Exception e) {
-            notification.markAsFailed();
-            System.err.println("Failed to send notification: " + e.getMessage());
-        } finally {
-            notificationRepository.save(notification);
-        }
-
+        // Delivery happens on the channel's workers; the caller gets the PENDING notification back
+        notificationDispatcher.dispatch(notification, this::deliver);
         return notification;
     }
 
@@ -72,23 +66,33 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.findAll();
     }
 
+    @Override
+    public List<Notification> getNotificationsPage(Long after, int limit) {
+        return notificationRepository.findPage(after, limit);
+    }
+
     @Override
     public List<Notification> getNotificationsByUserId(Long userId) {
         return notificationRepository.findByUserId(userId);
     }
 
+    @Override
+    public NotificationPage getNotificationsByUserId(Long userId, NotificationCursor after, int limit) {
+        return toPage(notificationRepository.findByUserId(userId, after, limit + 1), limit);
+    }
+
     @Override
     public List<Notification> getNotificationsByType(NotificationType type) {
         return notificationRepository.findByType(type);
     }
 
     @Override
-    public List<Notification> getNotificationsByStatus(String status) {
+    public List<Notification> getNotificationsByStatus(NotificationStatus status) {
         return notificationRepository.findByStatus(status);
     }
 
     @Override
-    public List<Notification> getNotificationsByPriority(String priority) {
+    public List<Notification> getNotificationsByPriority(NotificationPriority priority) {
         return notificationRepository.findByPriority(priority);
     }
 
@@ -97,31 +101,42 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.findByDateRange(start, end);
     }
 
+    @Override
+    public NotificationPage getNotificationsByDateRange(LocalDateTime start, LocalDateTime end,
+                                                        NotificationCursor after, int limit) {
+        return toPage(notificationRepository.findByDateRange(start, end, after, limit + 1), limit);
+    }
+
     @Override
     public List<Notification> getUnreadNotificationsByUserId(Long userId) {
         return notificationRepository.findUnreadByUserId(userId);
     }
 
+    @Override
+    public NotificationPage getUnreadNotificationsByUserId(Long userId, NotificationCursor after, int limit) {
+        return toPage(notificationRepository.findUnreadByUserId(userId, after, limit + 1), limit);
+    }
+
     @Override
     public Notification markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
 
-        notification.markAsRead();
-        return notificationRepository.save(notification);
+        return saveTransition(notification, Notification::markAsRead);
     }
 
     @Override
     public void deleteNotification(Long id) {
-        if (!notificationRepository.existsById(id)) {
+        // Deletes, retention drops and status transitions all run inside the entry's compute,
+        // so whichever comes second sees the first and a deleted notification stays deleted
+        if (!notificationRepository.deleteById(id)) {
             throw new RuntimeException("Notification not found with id: " + id);
         }
-        notificationRepository.deleteById(id);
     }
 
     @Override
     public long getUnreadCount(Long userId) {
-        return notificationRepository.findUnreadByUserId(userId).size();
+        return notificationRepository.countUnreadByUserId(userId);
     }
 
     @Override
@@ -133,8 +148,7 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setMessage(message);
         notification.setRecipient(email);
 
-        Notification created = createNotification(notification);
-        return sendNotification(created.getId());
+        return createAndSend(notification);
     }
 
     @Override
@@ -146,8 +160,7 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setMessage(message);
         notification.setRecipient(phoneNumber);
 
-        Notification created = createNotification(notification);
-        return sendNotification(created.getId());
+        return createAndSend(notification);
     }
 
     @Override
@@ -158,8 +171,7 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setTitle(title);
         notification.setMessage(message);
 
-        Notification created = createNotification(notification);
-        return sendNotification(created.getId());
+        return createAndSend(notification);
     }
 
     @Override
@@ -170,17 +182,91 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setTitle(title);
         notification.setMessage(message);
 
-        Notification created = createNotification(notification);
-        return sendNotification(created.getId());
+        return createAndSend(notification);
+    }
+
+    // Request handlers call this once per request rather than after every save, so background
+    // writers (broadcasts, delivery status updates) are not slowed to one fsync per notification
+    @Override
+    public void awaitDurable() {
+        notificationRepository.awaitDurable();
     }
 
     // =================== Helper methods ===================
-    private void simulateEmailSending(Notification notification) {
-        System.out.println("Simulating sending EMAIL to " + notification.getRecipient());
+    // Runs on a dispatcher worker. A notification read or deleted while queued is left alone.
+    // Bulk channels hand off to the batcher and complete when their batch has been sent.
+    private CompletionStage<Void> deliver(Notification notification) {
+        if (notification.getStatus() != NotificationStatus.PENDING) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (deliveryBatcher.handles(notification.getType())) {
+            return deliveryBatcher.submit(notification)
+                    .thenAccept(delivered -> completeDelivery(notification, delivered));
+        }
+        boolean delivered;
+        try {
+            // Simulate sending notification based on type
+            switch (notification.getType()) {
+                case PUSH:
+                    simulatePushNotificationSending(notification);
+                    break;
+                case IN_APP:
+                    // In-app notifications are immediately available
+                    break;
+                default:
+                    throw new RuntimeException("Unsupported notification type");
+            }
+            delivered = true;
+        } catch (Exception e) {
+            System.err.println("Failed to send notification: " + e.getMessage());
+            delivered = false;
+        }
+        completeDelivery(notification, delivered);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // Writes the delivery outcome back unless the notification moved on (e.g. was read) meanwhile
+    private void completeDelivery(Notification notification, boolean delivered) {
+        Notification updated = saveTransition(notification, n -> {
+            if (n.getStatus() == NotificationStatus.PENDING) {
+                if (delivered) {
+                    n.markAsSent();
+                } else {
+                    n.markAsFailed();
+                }
+            }
+        });
+        notificationStreamBroker.publish(updated);
+        if (delivered) {
+            System.out.println("Sent " + notification.getType() + " notification: " + notification.getTitle());
+        }
     }
 
-    private void simulateSMSSending(Notification notification) {
-        System.out.println("Simulating sending SMS to " + notification.getRecipient());
+    // Drops the new notification again if its channel is saturated, so a 429 leaves nothing behind
+    private Notification createAndSend(Notification notification) {
+        Notification created = createNotification(notification);
+        try {
+            return sendNotification(created.getId());
+        } catch (DispatchRejectedException e) {
+            deleteNotification(created.getId());
+            throw e;
+        }
+    }
+
+    // Applies a status change through the repository, which copies the stored notification, journals
+    // the copy and only then swaps it in; a concurrently deleted notification is not brought back.
+    private Notification saveTransition(Notification notification, Consumer<Notification> change) {
+        return notificationRepository.update(notification.getId(), change)
+                .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notification.getId()));
+    }
+
+    // Pages are fetched with one extra row so the last page can be detected without a count
+    private NotificationPage toPage(List<Notification> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new NotificationPage(rows, null);
+        }
+        List<Notification> page = rows.subList(0, limit);
+        return new NotificationPage(page, NotificationCursor.of(page.get(limit - 1)));
     }
 
     private void simulatePushNotificationSending(Notification notification) {
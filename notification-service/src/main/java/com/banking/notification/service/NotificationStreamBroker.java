@@ -0,0 +1,222 @@
+package com.banking.notification.service;
+
+import com.banking.notification.exception.SubscriberLimitException;
+import com.banking.notification.model.Notification;
+import com.banking.notification.model.NotificationType;
+import com.banking.notification.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes IN_APP and PUSH notifications to open SSE streams.
+ *
+ * Streams are async servlet responses, so an idle connection holds no thread. Each one
+ * has a small bounded buffer. Publishing only enqueues and, when needed, schedules the
+ * stream on a shared sender pool, so a slow client never blocks the publisher. A client
+ * that lets its buffer overflow is disconnected. It reconnects with Last-Event-ID and is
+ * replayed what it missed from the inbox.
+ */
+@Component
+public class NotificationStreamBroker {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${notification.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notification.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${notification.stream.max-streams-per-user:8}")
+    private int maxStreamsPerUser;
+
+    @Value("${notification.stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${notification.stream.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private ExecutorService senders;
+    private ScheduledExecutorService heartbeats;
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                close(); // slow consumer: drop the stream rather than the notification
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                scheduled.set(false);
+                // An event enqueued after the last poll but before the flag was cleared
+                if (!buffer.isEmpty() && !closed.get() && scheduled.compareAndSet(false, true)) {
+                    senders.execute(this::drain);
+                }
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+                buffer.clear();
+                emitter.complete();
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        senders = Executors.newFixedThreadPool(senderThreads);
+        heartbeats = Executors.newSingleThreadScheduledExecutor();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdown();
+        for (Set<Subscriber> streams : subscribers.values()) {
+            new ArrayList<>(streams).forEach(Subscriber::close);
+        }
+        senders.shutdown();
+    }
+
+    // Opens a stream for the user. With lastEventId, notifications after it are replayed first.
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.compute(userId, (id, streams) -> {
+            Set<Subscriber> updated = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            if (updated.size() >= maxStreamsPerUser) {
+                throw new SubscriberLimitException(userId);
+            }
+            updated.add(subscriber);
+            return updated;
+        });
+        emitter.onCompletion(() -> {
+            subscriber.closed.set(true);
+            unregister(subscriber);
+        });
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        if (lastEventId != null) {
+            replay(subscriber, lastEventId);
+        }
+        return emitter;
+    }
+
+    // Called after a notification is created or its delivery outcome is recorded
+    public void publish(Notification notification) {
+        if (notification.getType() != NotificationType.IN_APP && notification.getType() != NotificationType.PUSH) {
+            return;
+        }
+        Set<Subscriber> streams = subscribers.get(notification.getUserId());
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : streams) {
+            subscriber.enqueue(event(notification));
+        }
+    }
+
+    public int openStreams() {
+        int count = 0;
+        for (Set<Subscriber> streams : subscribers.values()) {
+            count += streams.size();
+        }
+        return count;
+    }
+
+    // Replays what the client missed, oldest first. Only the newest few inbox entries are looked
+    // at, so a long disconnect replays at most buffer-size notifications.
+    private void replay(Subscriber subscriber, long lastEventId) {
+        List<Notification> missed = new ArrayList<>();
+        for (Notification notification : notificationRepository.findByUserId(subscriber.userId, null, bufferSize * 4)) {
+            if (missed.size() >= bufferSize) {
+                break;
+            }
+            if (notification.getId() > lastEventId
+                    && (notification.getType() == NotificationType.IN_APP || notification.getType() == NotificationType.PUSH)) {
+                missed.add(notification);
+            }
+        }
+        Collections.reverse(missed);
+        for (Notification notification : missed) {
+            subscriber.enqueue(event(notification));
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            for (Set<Subscriber> streams : subscribers.values()) {
+                for (Subscriber subscriber : streams) {
+                    subscriber.enqueue(SseEmitter.event().comment("keep-alive"));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Notification stream heartbeat failed: " + e.getMessage());
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder event(Notification notification) {
+        return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name("notification")
+                .data(notification, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,51 @@
+package com.banking.notification.service;
+
+import com.banking.notification.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Periodically checks each user's unread index against the stored notifications and fixes the counts
+@Component
+public class UnreadCountReconciler {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${notification.unread.reconcile-interval-ms:60000}")
+    private long reconcileIntervalMs;
+
+    private ScheduledExecutorService reconciler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconciler = Executors.newSingleThreadScheduledExecutor();
+        reconciler.scheduleWithFixedDelay(this::reconcile, reconcileIntervalMs, reconcileIntervalMs,
+                                          TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reconciler != null) {
+            reconciler.shutdown();
+        }
+    }
+
+    private void reconcile() {
+        try {
+            int corrected = notificationRepository.reconcileUnreadCounts();
+            if (corrected > 0) {
+                System.err.println("Corrected drifted unread counts for " + corrected + " users");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Unread count reconciliation failed: " + e.getMessage());
+        }
+    }
+}
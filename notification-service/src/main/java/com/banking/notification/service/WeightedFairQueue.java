@@ -0,0 +1,161 @@
+package com.banking.notification.service;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded multi-class queue served by weighted fair queuing (self-clocked: virtual time
+ * is the finish tag of the last item served). Each class is FIFO with its own capacity,
+ * so a flooded class rejects only its own offers. While all classes are backlogged,
+ * class i gets weight[i] / sum(weights) of dequeues. An idle class that becomes active
+ * is served from the current virtual time, so it does not wait behind another class's backlog.
+ */
+public class WeightedFairQueue<T> {
+    private final int[] weights;
+    private final int capacityPerClass;
+    private final ArrayDeque<Tagged<T>>[] classes;
+    private final double[] lastFinish;
+    private double virtualTime;
+    private boolean closed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private record Tagged<T>(T item, double finish) {}
+
+    @SuppressWarnings("unchecked")
+    public WeightedFairQueue(int[] weights, int capacityPerClass) {
+        this.weights = weights.clone();
+        this.capacityPerClass = capacityPerClass;
+        this.classes = new ArrayDeque[weights.length];
+        this.lastFinish = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= 0) {
+                throw new IllegalArgumentException("Weights must be positive");
+            }
+            classes[i] = new ArrayDeque<>();
+        }
+    }
+
+    // False if the item's class is full or the queue is closed
+    public boolean offer(T item, int cls) {
+        lock.lock();
+        try {
+            if (closed || classes[cls].size() >= capacityPerClass) {
+                return false;
+            }
+            enqueue(item, cls);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits while the item's class is full; false if the queue is closed
+    public boolean put(T item, int cls) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed && classes[cls].size() >= capacityPerClass) {
+                notFull.await();
+            }
+            if (closed) {
+                return false;
+            }
+            enqueue(item, cls);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits up to the timeout for an item; null on timeout, or once closed and drained
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                int next = nextClass();
+                if (next >= 0) {
+                    Tagged<T> head = classes[next].pollFirst();
+                    virtualTime = head.finish();
+                    notFull.signalAll(); // waiters may be on any class
+                    return head.item();
+                }
+                if (closed || nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size(int cls) {
+        lock.lock();
+        try {
+            return classes[cls].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Items queued across all classes
+    public int size() {
+        lock.lock();
+        try {
+            int size = 0;
+            for (ArrayDeque<Tagged<T>> queued : classes) {
+                size += queued.size();
+            }
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stops accepting items; queued items are still handed out
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(T item, int cls) {
+        double finish = Math.max(virtualTime, lastFinish[cls]) + 1.0 / weights[cls];
+        lastFinish[cls] = finish;
+        classes[cls].addLast(new Tagged<>(item, finish));
+        notEmpty.signal();
+    }
+
+    // Class whose head has the smallest finish tag; ties go to the lower (more important) class
+    private int nextClass() {
+        int best = -1;
+        double bestFinish = Double.MAX_VALUE;
+        for (int i = 0; i < classes.length; i++) {
+            Tagged<T> head = classes[i].peekFirst();
+            if (head != null && head.finish() < bestFinish) {
+                best = i;
+                bestFinish = head.finish();
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,30 @@
+package com.banking.transaction.client;
+
+import com.banking.transaction.model.Account;
+import com.banking.transaction.model.BalanceMovement;
+import com.banking.transaction.model.BalanceMovementResult;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@FeignClient(name = "account-service")
+public interface AccountServiceClient {
+    @GetMapping("/api/accounts/{id}")
+    Optional<Account> getAccountById(@PathVariable("id") Long id);
+
+    @PostMapping("/api/accounts/{id}/credit")
+    Account credit(@PathVariable("id") Long id, @RequestParam("amount") BigDecimal amount);
+
+    @PostMapping("/api/accounts/{id}/debit")
+    Account debit(@PathVariable("id") Long id, @RequestParam("amount") BigDecimal amount);
+
+    @PostMapping("/api/accounts/movements/batch")
+    List<BalanceMovementResult> applyMovements(@RequestBody List<BalanceMovement> movements);
+}
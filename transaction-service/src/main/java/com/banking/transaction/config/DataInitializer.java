@@ -0,0 +1,49 @@
+package com.banking.transaction.config;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionType;
+import com.banking.transaction.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+public class DataInitializer implements CommandLineRunner {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // Historical transactions only; balances in account-service already reflect them
+        Transaction tx1 = new Transaction(TransactionType.DEPOSIT, null, 1L,
+                                          new BigDecimal("1000.00"), "Initial deposit");
+        tx1.markAsCompleted();
+
+        Transaction tx2 = new Transaction(TransactionType.WITHDRAWAL, 2L, null,
+                                          new BigDecimal("200.00"), "ATM withdrawal");
+        tx2.markAsCompleted();
+
+        Transaction tx3 = new Transaction(TransactionType.TRANSFER, 1L, 3L,
+                                          new BigDecimal("500.00"), "Transfer to savings");
+        tx3.markAsCompleted();
+
+        Transaction tx4 = new Transaction(TransactionType.PAYMENT, 3L, null,
+                                          new BigDecimal("75.50"), "Utility bill payment");
+        tx4.markAsCompleted();
+
+        // Left PENDING so it can be processed through POST /api/transactions/5/process
+        Transaction tx5 = new Transaction(TransactionType.TRANSFER, 2L, 1L,
+                                          new BigDecimal("150.00"), "Scheduled transfer");
+
+        transactionRepository.save(tx1);
+        transactionRepository.save(tx2);
+        transactionRepository.save(tx3);
+        transactionRepository.save(tx4);
+        transactionRepository.save(tx5);
+
+        System.out.println("Transaction service initialized with " + transactionRepository.count() + " transactions");
+    }
+}
@@ -0,0 +1,94 @@
+package com.banking.transaction.controller;
+
+import com.banking.transaction.model.TransferRequest;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Lazily decodes a batch body so transfers are processed while it is still being read.
+// Items that cannot be decoded are returned as null.
+final class BatchRequestReader {
+
+    private BatchRequestReader() {
+    }
+
+    // One JSON object per line; a malformed line only affects that item
+    static Iterator<TransferRequest> ndjson(ObjectMapper objectMapper, BufferedReader reader) {
+        ObjectReader transferReader = objectMapper.readerFor(TransferRequest.class);
+        return new Iterator<>() {
+            private String line = advance();
+
+            @Override
+            public boolean hasNext() {
+                return line != null;
+            }
+
+            @Override
+            public TransferRequest next() {
+                if (line == null) {
+                    throw new NoSuchElementException();
+                }
+                String current = line;
+                line = advance();
+                try {
+                    return transferReader.readValue(current);
+                } catch (IOException e) {
+                    return null;
+                }
+            }
+
+            private String advance() {
+                try {
+                    String next;
+                    do {
+                        next = reader.readLine();
+                    } while (next != null && next.isBlank());
+                    return next;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    // A JSON array of transfers; decoding stops at the first malformed element
+    static Iterator<TransferRequest> jsonArray(ObjectMapper objectMapper, InputStream body) throws IOException {
+        MappingIterator<TransferRequest> values = objectMapper.readerFor(TransferRequest.class).readValues(body);
+        return new Iterator<>() {
+            private boolean broken;
+
+            @Override
+            public boolean hasNext() {
+                if (broken) {
+                    return false;
+                }
+                try {
+                    return values.hasNextValue();
+                } catch (IOException e) {
+                    broken = true;
+                    return true; // surface one malformed item, then stop
+                }
+            }
+
+            @Override
+            public TransferRequest next() {
+                if (broken) {
+                    return null;
+                }
+                try {
+                    return values.nextValue();
+                } catch (IOException e) {
+                    broken = true;
+                    return null;
+                }
+            }
+        };
+    }
+}
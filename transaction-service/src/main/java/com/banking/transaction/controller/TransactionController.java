@@ -0,0 +1,172 @@
+package com.banking.transaction.controller;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionStatus;
+import com.banking.transaction.model.TransactionType;
+import com.banking.transaction.model.TransferRequest;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/transactions")
+@CrossOrigin(origins = "*")
+public class TransactionController {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<Transaction> createTransaction(
+            @Valid @RequestBody Transaction transaction,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            Transaction created = transactionService.createTransaction(transaction, idempotencyKey);
+            return new ResponseEntity<>(created, HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Accepts a JSON array or an NDJSON stream of transfers and answers in the same format, one
+    // result per item, in order. Results are written as each chunk finishes, so a body that breaks
+    // off midway still reports every item applied before the break.
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> submitBatch(HttpServletRequest request) {
+        boolean ndjson;
+        Iterator<TransferRequest> transfers;
+        try {
+            ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+            transfers = ndjson
+                    ? BatchRequestReader.ndjson(objectMapper, request.getReader())
+                    : BatchRequestReader.jsonArray(objectMapper, request.getInputStream());
+        } catch (IOException | RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> {
+            boolean[] first = {true};
+            if (!ndjson) {
+                out.write('[');
+            }
+            transactionService.processBatch(transfers, result -> {
+                try {
+                    if (!ndjson && !first[0]) {
+                        out.write(',');
+                    }
+                    first[0] = false;
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    if (ndjson) {
+                        out.write('\n');
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ndjson) {
+                out.write(']');
+            }
+        };
+        MediaType contentType = ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    @PostMapping("/{id}/process")
+    public ResponseEntity<Transaction> processTransaction(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(transactionService.processTransaction(id), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Transaction>> getAllTransactions() {
+        return new ResponseEntity<>(transactionService.getAllTransactions(), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
+        Optional<Transaction> transaction = transactionService.getTransactionById(id);
+        return transaction.map(t -> new ResponseEntity<>(t, HttpStatus.OK))
+                          .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/account/{accountId}")
+    public ResponseEntity<List<Transaction>> getTransactionsByAccountId(@PathVariable Long accountId) {
+        return new ResponseEntity<>(transactionService.getTransactionsByAccountId(accountId), HttpStatus.OK);
+    }
+
+    @GetMapping("/type/{type}")
+    public ResponseEntity<List<Transaction>> getTransactionsByType(@PathVariable TransactionType type) {
+        return new ResponseEntity<>(transactionService.getTransactionsByType(type), HttpStatus.OK);
+    }
+
+    @GetMapping("/status/{status}")
+    public ResponseEntity<List<Transaction>> getTransactionsByStatus(@PathVariable TransactionStatus status) {
+        return new ResponseEntity<>(transactionService.getTransactionsByStatus(status), HttpStatus.OK);
+    }
+
+    @PostMapping("/deposit")
+    public ResponseEntity<Transaction> deposit(
+            @RequestParam Long accountId,
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String description,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            Transaction transaction = transactionService.deposit(accountId, amount, description, idempotencyKey);
+            return new ResponseEntity<>(transaction, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/withdraw")
+    public ResponseEntity<Transaction> withdraw(
+            @RequestParam Long accountId,
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String description,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            Transaction transaction = transactionService.withdraw(accountId, amount, description, idempotencyKey);
+            return new ResponseEntity<>(transaction, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/transfer")
+    public ResponseEntity<Transaction> transfer(
+            @RequestParam Long fromAccountId,
+            @RequestParam Long toAccountId,
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String description,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            Transaction transaction = transactionService.transfer(fromAccountId, toAccountId, amount,
+                                                                  description, idempotencyKey);
+            return new ResponseEntity<>(transaction, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.banking.transaction.exception;
+
+// account-service refused the movement (e.g. insufficient funds); nothing was applied
+public class MovementRejectedException extends RuntimeException {
+    public MovementRejectedException(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.transaction.model;
+
+import java.math.BigDecimal;
+
+// One entry of a bulk movement request: a credit (no fromAccountId),
+// a debit (no toAccountId) or a transfer between two accounts. A movement with a
+// movementId is applied at most once within account-service's movement retention window;
+// re-sending it returns the first outcome.
+public class BalanceMovement {
+    private String movementId;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+
+    public BalanceMovement() {
+    }
+
+    public BalanceMovement(String movementId, Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        this.movementId = movementId;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+
+    // Getters and setters
+    public String getMovementId() { return movementId; }
+    public void setMovementId(String movementId) { this.movementId = movementId; }
+
+    public Long getFromAccountId() { return fromAccountId; }
+    public void setFromAccountId(Long fromAccountId) { this.fromAccountId = fromAccountId; }
+
+    public Long getToAccountId() { return toAccountId; }
+    public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
@@ -0,0 +1,29 @@
+package com.banking.transaction.model;
+
+public class BalanceMovementResult {
+    private boolean applied;
+    private String error;
+
+    public BalanceMovementResult() {
+    }
+
+    public BalanceMovementResult(boolean applied, String error) {
+        this.applied = applied;
+        this.error = error;
+    }
+
+    public static BalanceMovementResult applied() {
+        return new BalanceMovementResult(true, null);
+    }
+
+    public static BalanceMovementResult rejected(String error) {
+        return new BalanceMovementResult(false, error);
+    }
+
+    // Getters and setters
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
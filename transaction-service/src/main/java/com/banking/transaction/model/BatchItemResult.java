@@ -0,0 +1,31 @@
+package com.banking.transaction.model;
+
+public class BatchItemResult {
+    private int index;
+    private Long transactionId;
+    private TransactionStatus status;
+    private String failureReason;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, Long transactionId, TransactionStatus status, String failureReason) {
+        this.index = index;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.failureReason = failureReason;
+    }
+
+    // Getters and setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public TransactionStatus getStatus() { return status; }
+    public void setStatus(TransactionStatus status) { this.status = status; }
+
+    public String getFailureReason() { return failureReason; }
+    public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+}
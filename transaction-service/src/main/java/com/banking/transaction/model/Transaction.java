@@ -0,0 +1,125 @@
+package com.banking.transaction.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_from_account", columnList = "fromAccountId"),
+        @Index(name = "idx_transactions_to_account", columnList = "toAccountId"),
+        @Index(name = "idx_transactions_status", columnList = "status")
+})
+public class Transaction {
+    @Id
+    // Sequence ids (unlike IDENTITY) let Hibernate batch the inserts of batch submissions
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "Transaction type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionStatus status;
+
+    private Long fromAccountId; // debited account, null for deposits/refunds
+    private Long toAccountId;   // credited account, null for withdrawals/payments
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    private String description;
+
+    @Column(unique = true)
+    private String idempotencyKey;
+
+    // Sent with the balance movement so account-service applies it at most once. Random rather
+    // than the id, since ids start over whenever the in-memory database does.
+    @Column(nullable = false, updatable = false, length = 36)
+    private String movementKey;
+
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime processingStartedAt; // last time a processor claimed it
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public Transaction() {
+        this.status = TransactionStatus.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.movementKey = UUID.randomUUID().toString();
+    }
+
+    public Transaction(TransactionType type, Long fromAccountId, Long toAccountId,
+                       BigDecimal amount, String description) {
+        this();
+        this.type = type;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
+
+    public TransactionStatus getStatus() { return status; }
+    public void setStatus(TransactionStatus status) { this.status = status; }
+
+    public Long getFromAccountId() { return fromAccountId; }
+    public void setFromAccountId(Long fromAccountId) { this.fromAccountId = fromAccountId; }
+
+    public Long getToAccountId() { return toAccountId; }
+    public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getMovementKey() { return movementKey; }
+    public void setMovementKey(String movementKey) { this.movementKey = movementKey; }
+
+    public String getFailureReason() { return failureReason; }
+    public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getProcessingStartedAt() { return processingStartedAt; }
+    public void setProcessingStartedAt(LocalDateTime processingStartedAt) {
+        this.processingStartedAt = processingStartedAt;
+    }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+
+    public void markAsCompleted() {
+        this.status = TransactionStatus.COMPLETED;
+        this.failureReason = null;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    public void markAsFailed(String reason) {
+        this.status = TransactionStatus.FAILED;
+        this.failureReason = reason;
+        this.processedAt = LocalDateTime.now();
+    }
+}
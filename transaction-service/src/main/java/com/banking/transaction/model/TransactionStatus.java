@@ -0,0 +1,8 @@
+package com.banking.transaction.model;
+
+public enum TransactionStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.banking.transaction.model;
+
+public enum TransactionType {
+    DEPOSIT,
+    WITHDRAWAL,
+    TRANSFER,
+    PAYMENT,
+    REFUND
+}
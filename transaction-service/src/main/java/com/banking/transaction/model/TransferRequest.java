@@ -0,0 +1,24 @@
+package com.banking.transaction.model;
+
+import java.math.BigDecimal;
+
+// One transfer in a POST /api/transactions/batch submission
+public class TransferRequest {
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private String description;
+
+    // Getters and setters
+    public Long getFromAccountId() { return fromAccountId; }
+    public void setFromAccountId(Long fromAccountId) { this.fromAccountId = fromAccountId; }
+
+    public Long getToAccountId() { return toAccountId; }
+    public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
@@ -0,0 +1,51 @@
+package com.banking.transaction.repository;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionStatus;
+import com.banking.transaction.model.TransactionType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    @Query("select t from Transaction t where t.fromAccountId = :accountId or t.toAccountId = :accountId " +
+           "order by t.createdAt desc")
+    List<Transaction> findByAccountId(@Param("accountId") Long accountId);
+
+    List<Transaction> findByType(TransactionType type);
+
+    List<Transaction> findByStatus(TransactionStatus status);
+
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+    // Moves PENDING -> PROCESSING; returns 1 only for the caller that won the transition
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update Transaction t set t.status = com.banking.transaction.model.TransactionStatus.PROCESSING, " +
+           "t.processingStartedAt = :now " +
+           "where t.id = :id and t.status = com.banking.transaction.model.TransactionStatus.PENDING")
+    int claimPending(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Takes over a PROCESSING transaction last claimed at claimedAt; returns 1 only for one caller
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update Transaction t set t.processingStartedAt = :now " +
+           "where t.id = :id and t.status = com.banking.transaction.model.TransactionStatus.PROCESSING " +
+           "and t.processingStartedAt = :claimedAt")
+    int reclaimStale(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt,
+                     @Param("now") LocalDateTime now);
+
+    // PROCESSING transactions claimed before staleBefore and created after createdAfter
+    List<Transaction> findByStatusAndProcessingStartedAtBeforeAndCreatedAtAfterOrderByProcessingStartedAt(
+            TransactionStatus status, LocalDateTime staleBefore, LocalDateTime createdAfter, Pageable page);
+}
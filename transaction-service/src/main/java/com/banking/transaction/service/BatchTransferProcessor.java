@@ -0,0 +1,262 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.client.AccountServiceClient;
+import com.banking.transaction.model.BalanceMovement;
+import com.banking.transaction.model.BalanceMovementResult;
+import com.banking.transaction.model.BatchItemResult;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionStatus;
+import com.banking.transaction.model.TransactionType;
+import com.banking.transaction.model.TransferRequest;
+import com.banking.transaction.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Executes a stream of transfers in chunks, one account-service bulk call per chunk.
+ * Up to max-in-flight-chunks chunks of one batch are applied concurrently. A chunk waits
+ * only for earlier chunks that touch one of its accounts, so movements on the same account
+ * keep their submission order. Results are handed out per chunk, in submission order, as
+ * soon as they are known.
+ *
+ * Every movement carries its transaction's movement key, so a chunk whose call fails is
+ * re-sent as is without applying anything twice. Items whose outcome is still unknown after
+ * max-attempts stay PROCESSING and are finished by StaleTransactionRecovery.
+ */
+@Component
+public class BatchTransferProcessor {
+
+    @Value("${transaction.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${transaction.batch.max-in-flight-chunks:4}")
+    private int maxInFlightChunks;
+
+    @Value("${transaction.batch.apply-threads:16}")
+    private int applyThreads;
+
+    @Value("${transaction.batch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${transaction.batch.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountServiceClient accountServiceClient;
+
+    private ExecutorService applier;
+
+    @PostConstruct
+    public void start() {
+        // Each batch keeps at most max-in-flight-chunks queued here, and batches are bounded by
+        // the request threads, so the queue is bounded in practice as well
+        applier = new ThreadPoolExecutor(applyThreads, applyThreads, 60, TimeUnit.SECONDS,
+                                         new LinkedBlockingQueue<>());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        applier.shutdown();
+    }
+
+    // A null element stands for an item that could not be parsed. If reading the stream fails,
+    // the items read so far are still applied and reported, followed by one FAILED result for
+    // the position where reading stopped.
+    public void process(Iterator<TransferRequest> transfers, Consumer<BatchItemResult> sink) {
+        Semaphore inFlight = new Semaphore(maxInFlightChunks);
+        Queue<CompletableFuture<List<BatchItemResult>>> pending = new ArrayDeque<>();
+        Map<Long, CompletableFuture<?>> lastByAccount = new HashMap<>();
+        int index = 0;
+        String readFailure = null;
+
+        while (readFailure == null) {
+            Chunk chunk = new Chunk(index);
+            try {
+                while (transfers.hasNext() && chunk.size() < chunkSize) {
+                    chunk.add(transfers.next());
+                }
+            } catch (RuntimeException e) {
+                readFailure = "Request body could not be read: " + e.getMessage();
+            }
+            if (chunk.size() == 0) {
+                break;
+            }
+            index += chunk.size();
+            transactionRepository.saveAll(chunk.transactions);
+
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<List<BatchItemResult>> applied = CompletableFuture
+                    .allOf(conflicts(chunk, lastByAccount))
+                    .handle((ignored, e) -> null)
+                    .thenApplyAsync(ignored -> apply(chunk), applier)
+                    .whenComplete((results, e) -> inFlight.release());
+            if (lastByAccount.size() > 4 * chunkSize * maxInFlightChunks) {
+                lastByAccount.values().removeIf(CompletableFuture::isDone);
+            }
+            for (Long account : chunk.accounts) {
+                lastByAccount.put(account, applied);
+            }
+            pending.add(applied);
+            drainCompleted(pending, sink);
+        }
+
+        while (!pending.isEmpty()) {
+            pending.poll().join().forEach(sink);
+        }
+        if (readFailure != null) {
+            sink.accept(new BatchItemResult(index, null, TransactionStatus.FAILED, readFailure));
+        }
+    }
+
+    // Earlier chunks of this batch that share an account with the given chunk
+    private static CompletableFuture<?>[] conflicts(Chunk chunk, Map<Long, CompletableFuture<?>> lastByAccount) {
+        Set<CompletableFuture<?>> conflicts = new LinkedHashSet<>();
+        for (Long account : chunk.accounts) {
+            CompletableFuture<?> previous = lastByAccount.get(account);
+            if (previous != null && !previous.isDone()) {
+                conflicts.add(previous);
+            }
+        }
+        return conflicts.toArray(new CompletableFuture<?>[0]);
+    }
+
+    // Hands out results of finished chunks at the head of the queue, keeping submission order
+    private static void drainCompleted(Queue<CompletableFuture<List<BatchItemResult>>> pending,
+                                       Consumer<BatchItemResult> sink) {
+        while (!pending.isEmpty() && pending.peek().isDone()) {
+            pending.poll().join().forEach(sink);
+        }
+    }
+
+    private List<BatchItemResult> apply(Chunk chunk) {
+        List<BalanceMovement> movements = new ArrayList<>(chunk.transactions.size());
+        for (Transaction transaction : chunk.transactions) {
+            movements.add(TransferEngine.movementFor(transaction));
+        }
+
+        List<BalanceMovementResult> outcomes = movements.isEmpty() ? List.of() : send(chunk, movements);
+        if (outcomes != null) {
+            for (int i = 0; i < chunk.transactions.size(); i++) {
+                Transaction transaction = chunk.transactions.get(i);
+                BalanceMovementResult outcome = i < outcomes.size() ? outcomes.get(i) : null;
+                if (outcome != null && outcome.isApplied()) {
+                    transaction.markAsCompleted();
+                } else {
+                    transaction.markAsFailed(outcome != null ? outcome.getError()
+                                                             : "No result from account service");
+                }
+            }
+            transactionRepository.saveAll(chunk.transactions);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[chunk.size()];
+        for (BatchItemResult rejected : chunk.rejected) {
+            results[rejected.getIndex() - chunk.startIndex] = rejected;
+        }
+        for (int i = 0; i < chunk.transactions.size(); i++) {
+            Transaction transaction = chunk.transactions.get(i);
+            int offset = chunk.offsets.get(i);
+            String reason = outcomes != null ? transaction.getFailureReason()
+                                             : "Outcome unknown, will be retried";
+            results[offset] = new BatchItemResult(chunk.startIndex + offset, transaction.getId(),
+                                                  transaction.getStatus(), reason);
+        }
+        return List.of(results);
+    }
+
+    // Returns null if no attempt got a response; the items then stay PROCESSING
+    private List<BalanceMovementResult> send(Chunk chunk, List<BalanceMovement> movements) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return accountServiceClient.applyMovements(movements);
+            } catch (RuntimeException e) {
+                System.err.println("Batch chunk at index " + chunk.startIndex + " failed (attempt " + attempt
+                        + " of " + maxAttempts + "): " + e.getMessage());
+                if (attempt >= maxAttempts) {
+                    return null;
+                }
+            }
+            try {
+                Thread.sleep(retryBackoffMs * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    private static class Chunk {
+        final int startIndex;
+        final List<Transaction> transactions = new ArrayList<>();
+        final List<Integer> offsets = new ArrayList<>(); // position of each transaction within the chunk
+        final List<BatchItemResult> rejected = new ArrayList<>();
+        final Set<Long> accounts = new LinkedHashSet<>();
+        private int size;
+
+        Chunk(int startIndex) {
+            this.startIndex = startIndex;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(TransferRequest request) {
+            int offset = size++;
+            String error = validate(request);
+            if (error != null) {
+                rejected.add(new BatchItemResult(startIndex + offset, null, TransactionStatus.FAILED, error));
+                return;
+            }
+            Transaction transaction = new Transaction(TransactionType.TRANSFER, request.getFromAccountId(),
+                    request.getToAccountId(), request.getAmount(), request.getDescription());
+            // Owned by this batch; keeps POST /{id}/process from executing it a second time
+            transaction.setStatus(TransactionStatus.PROCESSING);
+            transaction.setProcessingStartedAt(LocalDateTime.now());
+            transactions.add(transaction);
+            offsets.add(offset);
+            accounts.add(request.getFromAccountId());
+            accounts.add(request.getToAccountId());
+        }
+
+        private static String validate(TransferRequest request) {
+            if (request == null) {
+                return "Malformed transfer";
+            }
+            if (request.getFromAccountId() == null || request.getToAccountId() == null) {
+                return "fromAccountId and toAccountId are required";
+            }
+            if (request.getFromAccountId().equals(request.getToAccountId())) {
+                return "Cannot transfer to the same account";
+            }
+            if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+                return "Amount must be positive";
+            }
+            return null;
+        }
+    }
+}
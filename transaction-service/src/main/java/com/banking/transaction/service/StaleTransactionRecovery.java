@@ -0,0 +1,63 @@
+package com.banking.transaction.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically re-sends the movements of transactions left PROCESSING by a crash or by a
+ * call whose outcome was unknown. Movements are re-sent under their original key, so
+ * account-service applies each one at most once. Transactions older than max-age-ms are
+ * left for manual reconciliation, since account-service may have forgotten their key.
+ */
+@Component
+public class StaleTransactionRecovery {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${transaction.recovery.interval-ms:30000}")
+    private long intervalMs;
+
+    @Value("${transaction.recovery.stale-after-ms:120000}")
+    private long staleAfterMs;
+
+    @Value("${transaction.recovery.max-age-ms:43200000}")
+    private long maxAgeMs;
+
+    @Value("${transaction.recovery.batch-size:100}")
+    private int batchSize;
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor();
+        sweeper.scheduleWithFixedDelay(this::sweep, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    private void sweep() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int resumed = transactionService.recoverStaleTransactions(now.minusNanos(staleAfterMs * 1_000_000),
+                    now.minusNanos(maxAgeMs * 1_000_000), batchSize);
+            if (resumed > 0) {
+                System.out.println("Resumed " + resumed + " stale PROCESSING transactions");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Stale transaction sweep failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.model.BatchItemResult;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionStatus;
+import com.banking.transaction.model.TransactionType;
+import com.banking.transaction.model.TransferRequest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface TransactionService {
+    Transaction createTransaction(Transaction transaction, String idempotencyKey);
+    Transaction processTransaction(Long id);
+    // Re-sends up to limit transactions left PROCESSING since before staleBefore; returns how many
+    int recoverStaleTransactions(LocalDateTime staleBefore, LocalDateTime createdAfter, int limit);
+    Optional<Transaction> getTransactionById(Long id);
+    List<Transaction> getAllTransactions();
+    List<Transaction> getTransactionsByAccountId(Long accountId);
+    List<Transaction> getTransactionsByType(TransactionType type);
+    List<Transaction> getTransactionsByStatus(TransactionStatus status);
+    Transaction deposit(Long accountId, BigDecimal amount, String description, String idempotencyKey);
+    Transaction withdraw(Long accountId, BigDecimal amount, String description, String idempotencyKey);
+    Transaction transfer(Long fromAccountId, Long toAccountId, BigDecimal amount, String description,
+                         String idempotencyKey);
+    void processBatch(Iterator<TransferRequest> transfers, Consumer<BatchItemResult> results);
+}
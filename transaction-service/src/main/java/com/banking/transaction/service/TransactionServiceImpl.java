@@ -0,0 +1,199 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.exception.MovementRejectedException;
+import com.banking.transaction.model.BatchItemResult;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionStatus;
+import com.banking.transaction.model.TransactionType;
+import com.banking.transaction.model.TransferRequest;
+import com.banking.transaction.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Service
+public class TransactionServiceImpl implements TransactionService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private BatchTransferProcessor batchTransferProcessor;
+
+    @Override
+    public Transaction createTransaction(Transaction transaction, String idempotencyKey) {
+        validate(transaction);
+        if (idempotencyKey != null) {
+            Optional<Transaction> existing = transactionRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        transaction.setId(null);
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setMovementKey(UUID.randomUUID().toString()); // never taken from the request
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCreatedAt(LocalDateTime.now());
+        try {
+            return transactionRepository.save(transaction);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent request carrying the same key
+            return transactionRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public Transaction processTransaction(Long id) {
+        Transaction transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+
+        // Only the caller that moves PENDING -> PROCESSING executes; everyone else,
+        // including retries of an already finished transaction, gets the current state.
+        LocalDateTime now = LocalDateTime.now();
+        if (transaction.getStatus() != TransactionStatus.PENDING
+                || transactionRepository.claimPending(id, now) == 0) {
+            return transactionRepository.findById(id).orElse(transaction);
+        }
+        transaction.setStatus(TransactionStatus.PROCESSING);
+        transaction.setProcessingStartedAt(now);
+        return execute(transaction);
+    }
+
+    @Override
+    public int recoverStaleTransactions(LocalDateTime staleBefore, LocalDateTime createdAfter, int limit) {
+        List<Transaction> stale = transactionRepository
+                .findByStatusAndProcessingStartedAtBeforeAndCreatedAtAfterOrderByProcessingStartedAt(
+                        TransactionStatus.PROCESSING, staleBefore, createdAfter, PageRequest.of(0, limit));
+        int resumed = 0;
+        for (Transaction transaction : stale) {
+            LocalDateTime now = LocalDateTime.now();
+            if (transactionRepository.reclaimStale(transaction.getId(), transaction.getProcessingStartedAt(),
+                                                   now) == 0) {
+                continue; // finished or taken over by another processor meanwhile
+            }
+            transaction.setProcessingStartedAt(now);
+            execute(transaction); // same movement key, so an already applied movement is not repeated
+            resumed++;
+        }
+        return resumed;
+    }
+
+    @Override
+    public Optional<Transaction> getTransactionById(Long id) {
+        return transactionRepository.findById(id);
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions() {
+        return transactionRepository.findAll();
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByAccountId(Long accountId) {
+        return transactionRepository.findByAccountId(accountId);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByType(TransactionType type) {
+        return transactionRepository.findByType(type);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByStatus(TransactionStatus status) {
+        return transactionRepository.findByStatus(status);
+    }
+
+    @Override
+    public Transaction deposit(Long accountId, BigDecimal amount, String description, String idempotencyKey) {
+        Transaction transaction = new Transaction(TransactionType.DEPOSIT, null, accountId, amount, description);
+        return createAndProcess(transaction, idempotencyKey);
+    }
+
+    @Override
+    public Transaction withdraw(Long accountId, BigDecimal amount, String description, String idempotencyKey) {
+        Transaction transaction = new Transaction(TransactionType.WITHDRAWAL, accountId, null, amount, description);
+        return createAndProcess(transaction, idempotencyKey);
+    }
+
+    @Override
+    public Transaction transfer(Long fromAccountId, Long toAccountId, BigDecimal amount, String description,
+                                String idempotencyKey) {
+        Transaction transaction = new Transaction(TransactionType.TRANSFER, fromAccountId, toAccountId,
+                                                  amount, description);
+        return createAndProcess(transaction, idempotencyKey);
+    }
+
+    @Override
+    public void processBatch(Iterator<TransferRequest> transfers, Consumer<BatchItemResult> results) {
+        batchTransferProcessor.process(transfers, results);
+    }
+
+    // =================== Helper methods ===================
+    // Runs a claimed transaction. When the outcome is unknown (timeout, account-service down)
+    // it stays PROCESSING, and the recovery sweep re-sends it later under the same movement key.
+    private Transaction execute(Transaction transaction) {
+        try {
+            transferEngine.execute(transaction);
+            transaction.markAsCompleted();
+        } catch (MovementRejectedException | IllegalArgumentException e) {
+            transaction.markAsFailed(e.getMessage());
+            System.err.println("Transaction " + transaction.getId() + " failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Transaction " + transaction.getId() + " outcome unknown, will retry: "
+                    + e.getMessage());
+            return transaction;
+        }
+        return transactionRepository.save(transaction);
+    }
+
+    private Transaction createAndProcess(Transaction transaction, String idempotencyKey) {
+        Transaction created = createTransaction(transaction, idempotencyKey);
+        return processTransaction(created.getId());
+    }
+
+    private void validate(Transaction transaction) {
+        if (transaction.getType() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        if (transaction.getAmount() == null || transaction.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        switch (transaction.getType()) {
+            case DEPOSIT:
+            case REFUND:
+                require(transaction.getToAccountId(), "toAccountId");
+                break;
+            case WITHDRAWAL:
+            case PAYMENT:
+                require(transaction.getFromAccountId(), "fromAccountId");
+                break;
+            case TRANSFER:
+                require(transaction.getFromAccountId(), "fromAccountId");
+                require(transaction.getToAccountId(), "toAccountId");
+                if (transaction.getFromAccountId().equals(transaction.getToAccountId())) {
+                    throw new IllegalArgumentException("Cannot transfer to the same account");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type");
+        }
+    }
+
+    private static void require(Long accountId, String field) {
+        if (accountId == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.client.AccountServiceClient;
+import com.banking.transaction.exception.MovementRejectedException;
+import com.banking.transaction.model.BalanceMovement;
+import com.banking.transaction.model.BalanceMovementResult;
+import com.banking.transaction.model.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Applies a transaction's balance movement through account-service's bulk movement
+ * endpoint, which moves both sides of a transfer in one journal record. The movement
+ * carries the transaction's movement key, so re-sending it after a timeout or a crash
+ * returns the original outcome instead of applying it twice.
+ */
+@Component
+public class TransferEngine {
+    private final AccountServiceClient accountServiceClient;
+
+    public TransferEngine(AccountServiceClient accountServiceClient) {
+        this.accountServiceClient = accountServiceClient;
+    }
+
+    // Throws MovementRejectedException if account-service refused the movement. Any other
+    // exception leaves the outcome unknown, and the movement may be re-sent.
+    public void execute(Transaction transaction) {
+        List<BalanceMovementResult> results = accountServiceClient.applyMovements(List.of(movementFor(transaction)));
+        if (results == null || results.size() != 1) {
+            throw new IllegalStateException("Unexpected response from account service");
+        }
+        BalanceMovementResult result = results.get(0);
+        if (!result.isApplied()) {
+            throw new MovementRejectedException(result.getError());
+        }
+    }
+
+    public static BalanceMovement movementFor(Transaction transaction) {
+        switch (transaction.getType()) {
+            case DEPOSIT:
+            case REFUND:
+                return new BalanceMovement(transaction.getMovementKey(), null, transaction.getToAccountId(),
+                                           transaction.getAmount());
+            case WITHDRAWAL:
+            case PAYMENT:
+                return new BalanceMovement(transaction.getMovementKey(), transaction.getFromAccountId(), null,
+                                           transaction.getAmount());
+            case TRANSFER:
+                if (transaction.getFromAccountId().equals(transaction.getToAccountId())) {
+                    throw new IllegalArgumentException("Cannot transfer to the same account");
+                }
+                return new BalanceMovement(transaction.getMovementKey(), transaction.getFromAccountId(),
+                                           transaction.getToAccountId(), transaction.getAmount());
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type");
+        }
+    }
+}
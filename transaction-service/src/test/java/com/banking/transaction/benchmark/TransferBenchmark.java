@@ -0,0 +1,147 @@
+package com.banking.transaction.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drives random concurrent transfers through a running transaction-service, which applies
+ * them in a running account-service, and reports throughput and latency. Afterwards it
+ * checks that the accounts' total balance is unchanged and counts transactions whose
+ * outcome was unknown (left PROCESSING).
+ *
+ * Run against a started stack, e.g.
+ *   java -cp target/test-classes:target/classes:<dependency classpath> \
+ *       com.banking.transaction.benchmark.TransferBenchmark --accounts=1,2,3 --threads=16 --transfers=20000
+ * Options: --transaction-url (http://localhost:8083), --account-url (http://localhost:8082).
+ */
+public class TransferBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        String transactionUrl = options.getOrDefault("transaction-url", "http://localhost:8083");
+        String accountUrl = options.getOrDefault("account-url", "http://localhost:8082");
+        long[] accounts = Arrays.stream(options.getOrDefault("accounts", "1,2,3").split(","))
+                .mapToLong(Long::parseLong).toArray();
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        int transfers = Integer.parseInt(options.getOrDefault("transfers", "20000"));
+        if (accounts.length < 2) {
+            throw new IllegalArgumentException("At least two accounts are required");
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        BigDecimal totalBefore = totalBalance(client, accountUrl, accounts);
+
+        int perThread = transfers / threads;
+        AtomicLongArray latencyMicros = new AtomicLongArray(perThread * threads);
+        AtomicLong next = new AtomicLong();
+        Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    int a = random.nextInt(accounts.length);
+                    int b = random.nextInt(accounts.length - 1);
+                    if (b >= a) {
+                        b++;
+                    }
+                    BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 5_000), 2);
+                    long sent = System.nanoTime();
+                    String outcome = transfer(client, transactionUrl, accounts[a], accounts[b], amount);
+                    latencyMicros.set((int) next.getAndIncrement(), (System.nanoTime() - sent) / 1000);
+                    outcomes.computeIfAbsent(outcome, k -> new AtomicLong()).incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Transfer benchmark did not finish");
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] sorted = new long[latencyMicros.length()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencyMicros.get(i);
+        }
+        Arrays.sort(sorted);
+        BigDecimal totalAfter = totalBalance(client, accountUrl, accounts);
+
+        System.out.printf("Transfer benchmark: %d transfers on %d threads over %d accounts in %d ms -> "
+                        + "%.0f transfers/s, latency p50 %d us, p99 %d us, max %d us%n",
+                sorted.length, threads, accounts.length, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                sorted.length * 1e9 / elapsedNanos, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        System.out.println("Outcomes: " + outcomes);
+        System.out.println("Total balance " + (totalBefore.compareTo(totalAfter) == 0 ? "conserved" : "CHANGED")
+                + " (before " + totalBefore + ", after " + totalAfter + ")");
+    }
+
+    // Returns the resulting transaction status, or the HTTP status / error for failed calls
+    private static String transfer(HttpClient client, String baseUrl, long from, long to, BigDecimal amount) {
+        URI uri = URI.create(baseUrl + "/api/transactions/transfer?fromAccountId=" + from
+                + "&toAccountId=" + to + "&amount=" + amount.toPlainString());
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return "HTTP " + response.statusCode();
+            }
+            return MAPPER.readTree(response.body()).path("status").asText();
+        } catch (IOException e) {
+            return e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+
+    private static BigDecimal totalBalance(HttpClient client, String baseUrl, long[] accounts) throws Exception {
+        BigDecimal total = BigDecimal.ZERO;
+        for (long id : accounts) {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/" + id)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Account " + id + " not readable: HTTP " + response.statusCode());
+            }
+            JsonNode account = MAPPER.readTree(response.body());
+            total = total.add(account.path("balance").decimalValue());
+        }
+        return total;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+}
@@ -0,0 +1,99 @@
+package com.banking.transaction.repository;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionStatus;
+import com.banking.transaction.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class TransactionRepositoryTest {
+
+    // Replaces the application class, which would also bring up Feign clients and discovery
+    @Configuration
+    @EntityScan(basePackageClasses = Transaction.class)
+    @EnableJpaRepositories(basePackageClasses = TransactionRepository.class)
+    static class JpaOnly {
+    }
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void onlyTheFirstClaimOfAPendingTransactionWins() {
+        Long id = pendingTransfer().getId();
+
+        assertEquals(1, transactionRepository.claimPending(id, T0));
+        assertEquals(0, transactionRepository.claimPending(id, T0.plusSeconds(1)));
+
+        Transaction claimed = transactionRepository.findById(id).orElseThrow();
+        assertEquals(TransactionStatus.PROCESSING, claimed.getStatus());
+        assertEquals(T0, claimed.getProcessingStartedAt());
+    }
+
+    @Test
+    void finishedTransactionsCannotBeClaimed() {
+        Transaction transaction = pendingTransfer();
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transactionRepository.saveAndFlush(transaction);
+
+        assertEquals(0, transactionRepository.claimPending(transaction.getId(), T0));
+    }
+
+    @Test
+    void staleClaimIsTakenOverOnlyByTheCallerThatSawIt() {
+        Long id = pendingTransfer().getId();
+        transactionRepository.claimPending(id, T0);
+        LocalDateTime observed = transactionRepository.findById(id).orElseThrow().getProcessingStartedAt();
+
+        // Two recoverers saw the same stale claim; the second one's compare fails
+        assertEquals(1, transactionRepository.reclaimStale(id, observed, T0.plusMinutes(5)));
+        assertEquals(0, transactionRepository.reclaimStale(id, observed, T0.plusMinutes(6)));
+
+        LocalDateTime current = transactionRepository.findById(id).orElseThrow().getProcessingStartedAt();
+        assertEquals(T0.plusMinutes(5), current);
+        assertEquals(1, transactionRepository.reclaimStale(id, current, T0.plusMinutes(10)));
+    }
+
+    @Test
+    void onlyProcessingTransactionsCanBeReclaimed() {
+        Transaction transaction = pendingTransfer();
+
+        assertEquals(0, transactionRepository.reclaimStale(transaction.getId(), T0, T0.plusMinutes(5)));
+    }
+
+    @Test
+    void staleQueryReturnsOldClaimsOldestFirst() {
+        Long older = pendingTransfer().getId();
+        Long newer = pendingTransfer().getId();
+        Long fresh = pendingTransfer().getId();
+        transactionRepository.claimPending(newer, T0.plusMinutes(2));
+        transactionRepository.claimPending(older, T0);
+        transactionRepository.claimPending(fresh, T0.plusMinutes(30));
+
+        List<Transaction> stale = transactionRepository
+                .findByStatusAndProcessingStartedAtBeforeAndCreatedAtAfterOrderByProcessingStartedAt(
+                        TransactionStatus.PROCESSING, T0.plusMinutes(10), T0.minusDays(1), PageRequest.of(0, 10));
+
+        assertEquals(List.of(older, newer), stale.stream().map(Transaction::getId).toList());
+    }
+
+    private Transaction pendingTransfer() {
+        Transaction transaction = new Transaction(TransactionType.TRANSFER, 1L, 2L, new BigDecimal("10.00"), "test");
+        transaction.setCreatedAt(T0.minusMinutes(1));
+        return transactionRepository.saveAndFlush(transaction);
+    }
+}
@@ -0,0 +1,126 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.client.AccountServiceClient;
+import com.banking.transaction.exception.MovementRejectedException;
+import com.banking.transaction.model.Account;
+import com.banking.transaction.model.BalanceMovement;
+import com.banking.transaction.model.BalanceMovementResult;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransferEngineTest {
+
+    private FakeAccountService accounts;
+    private TransferEngine transferEngine;
+
+    @BeforeEach
+    void setUp() {
+        accounts = new FakeAccountService();
+        accounts.balances.put(1L, new BigDecimal("100.00"));
+        accounts.balances.put(2L, new BigDecimal("50.00"));
+        transferEngine = new TransferEngine(accounts);
+    }
+
+    @Test
+    void reExecutingATransactionResendsItsMovementKeyAndMovesMoneyOnce() {
+        Transaction transfer = new Transaction(TransactionType.TRANSFER, 1L, 2L, new BigDecimal("30.00"), "rent");
+
+        transferEngine.execute(transfer);
+        transferEngine.execute(transfer); // e.g. recovery after a lost response
+
+        assertEquals(2, accounts.received.size());
+        assertEquals(transfer.getMovementKey(), accounts.received.get(0).getMovementId());
+        assertEquals(transfer.getMovementKey(), accounts.received.get(1).getMovementId());
+        assertEquals(new BigDecimal("70.00"), accounts.balances.get(1L));
+        assertEquals(new BigDecimal("80.00"), accounts.balances.get(2L));
+    }
+
+    @Test
+    void movementsMoveOnlyTheSidesTheTypeTouches() {
+        BalanceMovement deposit = TransferEngine.movementFor(
+                new Transaction(TransactionType.DEPOSIT, null, 2L, new BigDecimal("5.00"), null));
+        BalanceMovement payment = TransferEngine.movementFor(
+                new Transaction(TransactionType.PAYMENT, 1L, 2L, new BigDecimal("5.00"), null));
+
+        assertNull(deposit.getFromAccountId());
+        assertEquals(2L, deposit.getToAccountId());
+        assertEquals(1L, payment.getFromAccountId());
+        assertNull(payment.getToAccountId());
+    }
+
+    @Test
+    void transferToTheSameAccountIsRejectedBeforeSending() {
+        Transaction transfer = new Transaction(TransactionType.TRANSFER, 1L, 1L, new BigDecimal("5.00"), null);
+
+        assertThrows(IllegalArgumentException.class, () -> transferEngine.execute(transfer));
+        assertEquals(0, accounts.received.size());
+    }
+
+    @Test
+    void refusedMovementSurfacesAsMovementRejected() {
+        Transaction withdrawal = new Transaction(TransactionType.WITHDRAWAL, 2L, null, new BigDecimal("500.00"), null);
+
+        assertThrows(MovementRejectedException.class, () -> transferEngine.execute(withdrawal));
+        assertEquals(new BigDecimal("50.00"), accounts.balances.get(2L));
+    }
+
+    // Applies each movement id at most once, as account-service's MovementRegistry does
+    private static class FakeAccountService implements AccountServiceClient {
+        final Map<Long, BigDecimal> balances = new HashMap<>();
+        final Map<String, BalanceMovementResult> outcomes = new HashMap<>();
+        final List<BalanceMovement> received = new ArrayList<>();
+
+        @Override
+        public List<BalanceMovementResult> applyMovements(List<BalanceMovement> movements) {
+            List<BalanceMovementResult> results = new ArrayList<>();
+            for (BalanceMovement movement : movements) {
+                received.add(movement);
+                results.add(outcomes.computeIfAbsent(movement.getMovementId(), id -> apply(movement)));
+            }
+            return results;
+        }
+
+        private BalanceMovementResult apply(BalanceMovement movement) {
+            Long from = movement.getFromAccountId();
+            Long to = movement.getToAccountId();
+            if (from != null && balances.get(from).compareTo(movement.getAmount()) < 0) {
+                return BalanceMovementResult.rejected("Insufficient funds in account: " + from);
+            }
+            if (from != null) {
+                balances.put(from, balances.get(from).subtract(movement.getAmount()));
+            }
+            if (to != null) {
+                balances.put(to, balances.get(to).add(movement.getAmount()));
+            }
+            return BalanceMovementResult.applied();
+        }
+
+        @Override
+        public Optional<Account> getAccountById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Account credit(Long id, BigDecimal amount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Account debit(Long id, BigDecimal amount) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -14,6 +14,11 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        if (userRepository.count() > 0) {
+            System.out.println("User service restored " + userRepository.count() + " users, skipping seed data");
+            return;
+        }
+
         // Initialize dummy users
         User user1 = new User(1L, "John", "Doe", "john.doe@email.com", "+1234567890", "123 Main St, New York, NY");
         User user2 = new User(2L, "Jane", "Smith", "jane.smith@email.com", "+1987654321", "456 Oak Ave, Los Angeles, CA");
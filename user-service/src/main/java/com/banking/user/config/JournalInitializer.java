@@ -0,0 +1,87 @@
+package com.banking.user.config;
+
+import com.banking.journal.RepositoryJournal;
+import com.banking.user.journal.UserCodec;
+import com.banking.user.model.User;
+import com.banking.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Restores UserRepository from disk before DataInitializer runs and keeps it journaled
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalInitializer {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${journal.directory:data/user-service}")
+    private String directory;
+
+    @Value("${journal.region-size-mb:64}")
+    private int regionSizeMb;
+
+    @Value("${journal.flush-interval-ms:10}")
+    private long flushIntervalMs;
+
+    // When enabled, writes are acknowledged only after the fsync that covers them
+    @Value("${journal.group-commit.enabled:true}")
+    private boolean groupCommitEnabled;
+
+    @Value("${journal.group-commit.interval-micros:2000}")
+    private long groupCommitIntervalMicros;
+
+    @Value("${journal.group-commit.threshold-bytes:262144}")
+    private long groupCommitThresholdBytes;
+
+    @Value("${journal.snapshot-interval-ms:300000}")
+    private long snapshotIntervalMs;
+
+    private RepositoryJournal<User> journal;
+    private ScheduledExecutorService snapshotter;
+
+    @PostConstruct
+    public void recover() throws IOException {
+        journal = new RepositoryJournal<>(Paths.get(directory), new UserCodec(),
+                                          regionSizeMb * 1024 * 1024, flushIntervalMs);
+        if (groupCommitEnabled) {
+            journal.useGroupCommit(groupCommitIntervalMicros, groupCommitThresholdBytes, meterRegistry, "user.journal");
+        }
+        journal.recover(userRepository::restore, userRepository::restoreDelete);
+        userRepository.attachJournal(journal);
+        System.out.println("User journal recovered " + userRepository.count() + " users from " + directory);
+
+        snapshotter = Executors.newSingleThreadScheduledExecutor();
+        snapshotter.scheduleWithFixedDelay(this::checkpoint, snapshotIntervalMs, snapshotIntervalMs,
+                                           TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        snapshotter.shutdown();
+        checkpoint();
+        journal.close();
+    }
+
+    private void checkpoint() {
+        try {
+            journal.checkpoint(userRepository.snapshot());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("User snapshot failed: " + e.getMessage());
+        }
+    }
+}
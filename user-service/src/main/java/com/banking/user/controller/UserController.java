@@ -1,12 +1,19 @@
 package com.banking.user.controller;
 
+import com.banking.journal.JournalException;
+import com.banking.user.exception.DuplicateEmailException;
 import com.banking.user.model.User;
+import com.banking.user.model.UserChanges;
 import com.banking.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,26 +22,100 @@ import java.util.Optional;
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "*")
 public class UserController {
+    private static final String NEXT_AFTER_HEADER = "X-Next-After";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
         try {
             User createdUser = userService.createUser(user);
             return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
+        } catch (DuplicateEmailException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
+    // One keyset page in id order, limit users long (default DEFAULT_PAGE_SIZE, capped at
+    // MAX_PAGE_SIZE; a non-positive limit is rejected). When more may follow, the id to pass as after
+    // is sent in the X-Next-After header. /export streams every user.
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        List<User> page = userService.getUsersPage(after, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.size() == size) {
+            headers.add(NEXT_AFTER_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return new ResponseEntity<>(page, headers, HttpStatus.OK);
+    }
+
+    // NDJSON export of every user in id order. Written a page at a time straight to the
+    // response, so memory use does not grow with the table.
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> {
+            Long after = null;
+            List<User> page;
+            while (!(page = userService.getUsersPage(after, EXPORT_PAGE_SIZE)).isEmpty()) {
+                for (User item : page) {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                }
+                out.flush();
+                after = page.get(page.size() - 1).getId();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Bulk lookup for other services: users for the given ids in request order; unknown ids are left out
+    @PostMapping("/batch")
+    public ResponseEntity<List<User>> getUsersByIds(@RequestBody List<Long> ids) {
+        if (ids == null || ids.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(userService.getUsersByIds(ids), HttpStatus.OK);
+    }
+
+    // Typeahead by partial name, email or phone number
+    @GetMapping("/search")
+    public ResponseEntity<List<User>> searchUsers(@RequestParam String q,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        List<User> users = userService.searchUsers(q, size);
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
+    // Change feed for caches in other services: users created, updated or deleted after the
+    // given sequence. Pass back the epoch and latestSequence of the previous response.
+    @GetMapping("/changes")
+    public ResponseEntity<UserChanges> getChanges(@RequestParam(required = false) String epoch,
+                                                  @RequestParam(defaultValue = "-1") long since) {
+        return new ResponseEntity<>(userService.getChanges(epoch, since), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         Optional<User> user = userService.getUserById(id);
@@ -54,6 +135,10 @@ public class UserController {
         try {
             User updatedUser = userService.updateUser(id, user);
             return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        } catch (DuplicateEmailException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -64,6 +149,8 @@ public class UserController {
         try {
             userService.deleteUser(id);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (JournalException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -0,0 +1,8 @@
+package com.banking.user.exception;
+
+// Thrown when an email (compared case-insensitively) already belongs to another user; surfaced as 409
+public class DuplicateEmailException extends RuntimeException {
+    public DuplicateEmailException(String email) {
+        super("User with email " + email + " already exists");
+    }
+}
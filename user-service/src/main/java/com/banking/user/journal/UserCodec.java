@@ -0,0 +1,37 @@
+package com.banking.user.journal;
+
+import com.banking.journal.EntityCodec;
+import com.banking.user.model.User;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class UserCodec implements EntityCodec<User> {
+
+    @Override
+    public void write(DataOutput out, User user) throws IOException {
+        out.writeLong(user.getId());
+        EntityCodec.writeString(out, user.getFirstName());
+        EntityCodec.writeString(out, user.getLastName());
+        EntityCodec.writeString(out, user.getEmail());
+        EntityCodec.writeString(out, user.getPhoneNumber());
+        EntityCodec.writeString(out, user.getAddress());
+        EntityCodec.writeDateTime(out, user.getCreatedAt());
+        EntityCodec.writeDateTime(out, user.getUpdatedAt());
+    }
+
+    @Override
+    public User read(DataInput in) throws IOException {
+        User user = new User();
+        user.setId(in.readLong());
+        user.setFirstName(EntityCodec.readString(in));
+        user.setLastName(EntityCodec.readString(in));
+        user.setEmail(EntityCodec.readString(in));
+        user.setPhoneNumber(EntityCodec.readString(in));
+        user.setAddress(EntityCodec.readString(in));
+        user.setCreatedAt(EntityCodec.readDateTime(in));
+        user.setUpdatedAt(EntityCodec.readDateTime(in));
+        return user;
+    }
+}
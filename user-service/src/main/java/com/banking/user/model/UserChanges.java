@@ -0,0 +1,33 @@
+package com.banking.user.model;
+
+import java.util.List;
+
+// Users changed since a sequence number. When complete is false the caller missed changes
+// (it fell too far behind, or the service restarted under a new epoch) and must drop whatever it cached.
+public class UserChanges {
+    private String epoch;
+    private long latestSequence;
+    private boolean complete;
+    private List<Long> userIds;
+
+    public UserChanges() {}
+
+    public UserChanges(String epoch, long latestSequence, boolean complete, List<Long> userIds) {
+        this.epoch = epoch;
+        this.latestSequence = latestSequence;
+        this.complete = complete;
+        this.userIds = userIds;
+    }
+
+    public String getEpoch() { return epoch; }
+    public void setEpoch(String epoch) { this.epoch = epoch; }
+
+    public long getLatestSequence() { return latestSequence; }
+    public void setLatestSequence(long latestSequence) { this.latestSequence = latestSequence; }
+
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+
+    public List<Long> getUserIds() { return userIds; }
+    public void setUserIds(List<Long> userIds) { this.userIds = userIds; }
+}
@@ -1,22 +1,62 @@
 package com.banking.user.repository;
 
+import com.banking.journal.RepositoryJournal;
+import com.banking.user.exception.DuplicateEmailException;
 import com.banking.user.model.User;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
 public class UserRepository {
     private final Map<Long, User> users = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
+    // Ids in order, for keyset pagination. Added on every save, removed only on delete, so a
+    // user being re-saved never drops out of a page being read.
+    private final NavigableSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+    // Normalized email -> user id. Claimed with putIfAbsent, so uniqueness holds under concurrent signups.
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
+    // The key each user is indexed under, so an email change can release the old one
+    private final Map<Long, String> indexedEmails = new ConcurrentHashMap<>();
+    private final UserSearchIndex searchIndex = new UserSearchIndex();
+    private volatile RepositoryJournal<User> journal; // set when durability is enabled
 
     public User save(User user) {
         if (user.getId() == null) {
             user.setId(idGenerator.getAndIncrement());
+        } else {
+            // Seeded users carry explicit ids; never hand those ids out again
+            idGenerator.accumulateAndGet(user.getId() + 1, Math::max);
+        }
+        RepositoryJournal<User> journal = this.journal;
+        if (journal == null) {
+            users.compute(user.getId(), (id, previous) -> {
+                indexEmail(id, user);
+                searchIndex.index(id, user);
+                orderedIds.add(id);
+                return user;
+            });
+        } else {
+            journal.mutate(() -> users.compute(user.getId(), (id, previous) -> {
+                String claimed = claimEmail(id, user); // before logging, so a rejected duplicate is never journaled
+                try {
+                    journal.logUpsert(user);
+                } catch (RuntimeException e) {
+                    // The compute aborts and the stored user keeps its old email; give the new one back
+                    if (claimed != null) {
+                        emailIndex.remove(claimed, id);
+                    }
+                    throw e;
+                }
+                indexEmail(id, user);
+                searchIndex.index(id, user);
+                orderedIds.add(id);
+                return user;
+            }));
         }
-        users.put(user.getId(), user);
         return user;
     }
 
@@ -28,14 +68,71 @@ public class UserRepository {
         return new ArrayList<>(users.values());
     }
 
+    // Users for the given ids in the order given; unknown and repeated ids are skipped
+    public List<User> findAllById(Collection<Long> ids) {
+        List<User> found = new ArrayList<>(ids.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            User user = id != null ? users.get(id) : null;
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        return found;
+    }
+
+    // Keyset page in id order: up to limit users with id > after (null starts at the beginning).
+    // Cost is O(limit), however large the table.
+    public List<User> findPage(Long after, int limit) {
+        NavigableSet<Long> ids = after == null ? orderedIds : orderedIds.tailSet(after, false);
+        List<User> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids) {
+            if (page.size() >= limit) {
+                break;
+            }
+            User user = users.get(id);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+
     public Optional<User> findByEmail(String email) {
-        return users.values().stream()
-                .filter(user -> user.getEmail().equals(email))
-                .findFirst();
+        String key = normalizeEmail(email);
+        Long id = key != null ? emailIndex.get(key) : null;
+        return id != null ? Optional.ofNullable(users.get(id)) : Optional.empty();
     }
 
     public void deleteById(Long id) {
-        users.remove(id);
+        RepositoryJournal<User> journal = this.journal;
+        if (journal == null) {
+            users.computeIfPresent(id, (key, previous) -> {
+                unindexEmail(key);
+                searchIndex.remove(key);
+                orderedIds.remove(key);
+                return null;
+            });
+        } else {
+            journal.mutate(() -> users.computeIfPresent(id, (key, previous) -> {
+                journal.logDelete(key);
+                unindexEmail(key);
+                searchIndex.remove(key);
+                orderedIds.remove(key);
+                return null;
+            }));
+        }
+    }
+
+    // Typeahead over names, email and phone; at most limit users
+    public List<User> search(String query, int limit) {
+        List<User> result = new ArrayList<>();
+        for (Long id : searchIndex.search(query, limit)) {
+            User user = users.get(id);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
     }
 
     public boolean existsById(Long id) {
@@ -45,4 +142,91 @@ public class UserRepository {
     public long count() {
         return users.size();
     }
-}
\ No newline at end of file
+
+    // =================== Email index ===================
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Runs inside users.compute for the id, so index changes for one user never interleave
+    // Claims the user's email for the id, or throws if another user holds it. Returns the key if
+    // this call claimed it, null if there was nothing new to claim.
+    private String claimEmail(Long id, User user) {
+        String key = normalizeEmail(user.getEmail());
+        if (key == null || key.equals(indexedEmails.get(id))) {
+            return null;
+        }
+        Long owner = emailIndex.putIfAbsent(key, id);
+        if (owner != null && !owner.equals(id)) {
+            throw new DuplicateEmailException(user.getEmail());
+        }
+        return owner == null ? key : null;
+    }
+
+    private void indexEmail(Long id, User user) {
+        claimEmail(id, user);
+        String key = normalizeEmail(user.getEmail());
+        String previousKey = indexedEmails.get(id);
+        if (previousKey != null && !previousKey.equals(key)) {
+            emailIndex.remove(previousKey, id);
+        }
+        if (key == null) {
+            indexedEmails.remove(id);
+        } else {
+            indexedEmails.put(id, key);
+        }
+    }
+
+    private void unindexEmail(Long id) {
+        String key = indexedEmails.remove(id);
+        if (key != null) {
+            emailIndex.remove(key, id);
+        }
+    }
+
+    // =================== Journal support ===================
+    public void attachJournal(RepositoryJournal<User> journal) {
+        this.journal = journal;
+    }
+
+    // Returns once this thread's saves and deletes are durable (when journaling with group commit)
+    public void awaitDurable() {
+        RepositoryJournal<User> journal = this.journal;
+        if (journal != null) {
+            journal.awaitDurable();
+        }
+    }
+
+    // Applies a recovered record without logging it again
+    public void restore(User user) {
+        users.compute(user.getId(), (id, previous) -> {
+            // Recovery replays history in order, so the latest owner of an email simply wins
+            String previousKey = indexedEmails.remove(id);
+            if (previousKey != null) {
+                emailIndex.remove(previousKey, id);
+            }
+            String key = normalizeEmail(user.getEmail());
+            if (key != null) {
+                emailIndex.put(key, id);
+                indexedEmails.put(id, key);
+            }
+            searchIndex.index(id, user);
+            orderedIds.add(id);
+            return user;
+        });
+        idGenerator.accumulateAndGet(user.getId() + 1, Math::max);
+    }
+
+    public void restoreDelete(long id) {
+        users.computeIfPresent(id, (key, previous) -> {
+            unindexEmail(key);
+            searchIndex.remove(key);
+            orderedIds.remove(key);
+            return null;
+        });
+    }
+
+    public Collection<User> snapshot() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+}
@@ -0,0 +1,229 @@
+package com.banking.user.repository;
+
+import com.banking.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix index over first name, last name, email and phone number for typeahead search.
+ *
+ * Terms live in a sorted map, so the users matching a prefix form one contiguous range.
+ * A search walks the range of its rarest token (the one matching the fewest users) and
+ * checks the other tokens against each candidate's own terms. Matches are ranked by how
+ * closely their terms fit the tokens, exact terms first. UserRepository maintains the index
+ * inside its per-user compute, so a user's terms change together with the user.
+ */
+class UserSearchIndex {
+    private static final int STRIPES = 64; // power of two
+    // Candidates a search examines at most; the range is walked in term order, so exact and
+    // near-exact terms are examined before a very broad prefix is cut off
+    private static final int MAX_CANDIDATES = 10_000;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> termsByUser = new ConcurrentHashMap<>();
+    // Adding to a term's id set and dropping the set once empty must not interleave
+    private final Object[] termLocks = new Object[STRIPES];
+
+    UserSearchIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            termLocks[i] = new Object();
+        }
+    }
+
+    void index(Long id, User user) {
+        Set<String> updated = termsOf(user);
+        Set<String> previous = termsByUser.put(id, updated);
+        if (previous != null) {
+            for (String term : previous) {
+                if (!updated.contains(term)) {
+                    removeTerm(term, id);
+                }
+            }
+        }
+        for (String term : updated) {
+            if (previous == null || !previous.contains(term)) {
+                addTerm(term, id);
+            }
+        }
+    }
+
+    void remove(Long id) {
+        Set<String> previous = termsByUser.remove(id);
+        if (previous != null) {
+            for (String term : previous) {
+                removeTerm(term, id);
+            }
+        }
+    }
+
+    // Ids of users for whom every query token is a prefix of one of their terms, best matches first
+    List<Long> search(String query, int limit) {
+        List<String> tokens = queryTokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String driver = rarest(tokens);
+        Map<Long, Integer> scores = new HashMap<>();
+        int examined = 0;
+        scan:
+        for (Set<Long> ids : range(driver).values()) {
+            for (Long id : ids) {
+                if (examined++ >= MAX_CANDIDATES) {
+                    break scan;
+                }
+                if (!scores.containsKey(id)) {
+                    int score = score(id, tokens);
+                    if (score >= 0) {
+                        scores.put(id, score);
+                    }
+                }
+            }
+        }
+        List<Long> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort(Comparator.comparing((Long id) -> scores.get(id)).thenComparing(id -> id));
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    // The token whose prefix range holds the fewest ids. Longer tokens usually have narrower
+    // ranges, so they are counted first. Every count stops at the best so far, and never goes past
+    // MAX_CANDIDATES, since the scan reads no more than that anyway; if every token reaches the
+    // bound, the longest one is used.
+    private String rarest(List<String> tokens) {
+        if (tokens.size() == 1) {
+            return tokens.get(0);
+        }
+        List<String> byLength = new ArrayList<>(tokens);
+        byLength.sort(Comparator.comparingInt(String::length).reversed());
+        String rarest = byLength.get(0);
+        long fewest = MAX_CANDIDATES + 1L;
+        for (String token : byLength) {
+            long count = 0;
+            for (Set<Long> ids : range(token).values()) {
+                count += ids.size();
+                if (count >= fewest) {
+                    break;
+                }
+            }
+            if (count < fewest) {
+                rarest = token;
+                fewest = count;
+            }
+        }
+        return rarest;
+    }
+
+    private Map<String, Set<Long>> range(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // Sum over the tokens of the characters the user's closest matching term adds to the token,
+    // so 0 means every token is a whole term; -1 if some token matches none of the user's terms
+    private int score(Long id, List<String> tokens) {
+        Set<String> userTerms = termsByUser.get(id);
+        if (userTerms == null) {
+            return -1;
+        }
+        int score = 0;
+        for (String token : tokens) {
+            int best = -1;
+            for (String term : userTerms) {
+                if (term.startsWith(token) && (best < 0 || term.length() - token.length() < best)) {
+                    best = term.length() - token.length();
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    private void addTerm(String term, Long id) {
+        synchronized (termLocks[stripe(term)]) {
+            terms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void removeTerm(String term, Long id) {
+        synchronized (termLocks[stripe(term)]) {
+            Set<Long> ids = terms.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                terms.remove(term, ids);
+            }
+        }
+    }
+
+    private static int stripe(String term) {
+        return term.hashCode() & (STRIPES - 1);
+    }
+
+    // Whole fields plus their alphanumeric words, lower-cased; phone numbers as digits only
+    private static Set<String> termsOf(User user) {
+        Set<String> result = new HashSet<>();
+        addField(result, user.getFirstName());
+        addField(result, user.getLastName());
+        addField(result, user.getEmail());
+        String phone = digitsOf(user.getPhoneNumber());
+        if (!phone.isEmpty()) {
+            result.add(phone);
+        }
+        return result;
+    }
+
+    private static void addField(Set<String> result, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        result.add(normalized);
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+    }
+
+    private static List<String> queryTokens(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return tokens;
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        // A query that looks like a phone number ("+1 555-0100") is one digits-only token
+        if (normalized.matches("[+\\d\\s().-]+") && normalized.chars().anyMatch(Character::isDigit)) {
+            tokens.add(digitsOf(normalized));
+            return tokens;
+        }
+        for (String token : normalized.split("\\s+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String digitsOf(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.banking.user.service;
+
+import com.banking.user.model.UserChanges;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded feed of user create, update and delete events, read by other services to
+ * invalidate what they cache about users. Events are numbered; a reader polls with the
+ * last sequence it saw. The feed keeps the newest capacity events. The epoch changes on
+ * every start, so a reader can tell a restart from a quiet period.
+ */
+@Component
+public class UserChangeLog {
+    private final String epoch = UUID.randomUUID().toString();
+    private final long[] ring;
+    private long nextSequence; // guarded by this
+
+    public UserChangeLog(@Value("${user.changes.capacity:10000}") int capacity) {
+        this.ring = new long[capacity];
+    }
+
+    public synchronized void record(Long userId) {
+        ring[(int) (nextSequence % ring.length)] = userId;
+        nextSequence++;
+    }
+
+    // Users changed after the given sequence (-1 when the caller has none yet), each listed once
+    public synchronized UserChanges since(String readerEpoch, long sequence) {
+        long latest = nextSequence - 1;
+        boolean complete = epoch.equals(readerEpoch)
+                && sequence <= latest
+                && sequence >= nextSequence - ring.length - 1;
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (complete) {
+            for (long s = sequence + 1; s <= latest; s++) {
+                userIds.add(ring[(int) (s % ring.length)]);
+            }
+        }
+        return new UserChanges(epoch, latest, complete, new ArrayList<>(userIds));
+    }
+}
@@ -1,14 +1,19 @@
 package com.banking.user.service;
 
 import com.banking.user.model.User;
+import com.banking.user.model.UserChanges;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserService {
     User createUser(User user);
     Optional<User> getUserById(Long id);
+    List<User> getUsersByIds(List<Long> ids);
     List<User> getAllUsers();
+    List<User> getUsersPage(Long after, int limit);
     Optional<User> getUserByEmail(String email);
+    List<User> searchUsers(String query, int limit);
     User updateUser(Long id, User user);
     void deleteUser(Long id);
+    UserChanges getChanges(String epoch, long since);
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.banking.user.service;
 
+import com.banking.user.exception.DuplicateEmailException;
 import com.banking.user.model.User;
+import com.banking.user.model.UserChanges;
 import com.banking.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,16 +17,23 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserChangeLog userChangeLog;
+
     @Override
     public User createUser(User user) {
-        // Check if email already exists
+        // Fast path; the repository's email index enforces uniqueness atomically on save
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
-            throw new RuntimeException("User with email " + user.getEmail() + " already exists");
+            throw new DuplicateEmailException(user.getEmail());
         }
-        
+
+
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User created = userRepository.save(user);
+        userChangeLog.record(created.getId()); // clears negative cache entries for the id elsewhere
+        userRepository.awaitDurable();
+        return created;
     }
 
     @Override
@@ -32,28 +41,50 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(id);
     }
 
+    @Override
+    public List<User> getUsersByIds(List<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
     @Override
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @Override
+    public List<User> getUsersPage(Long after, int limit) {
+        return userRepository.findPage(after, limit);
+    }
+
     @Override
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        return userRepository.search(query, limit);
+    }
+
     @Override
     public User updateUser(Long id, User user) {
         Optional<User> existingUser = userRepository.findById(id);
         if (existingUser.isPresent()) {
-            User updatedUser = existingUser.get();
-            updatedUser.setFirstName(user.getFirstName());
-            updatedUser.setLastName(user.getLastName());
-            updatedUser.setEmail(user.getEmail());
-            updatedUser.setPhoneNumber(user.getPhoneNumber());
-            updatedUser.setAddress(user.getAddress());
-            updatedUser.setUpdatedAt(LocalDateTime.now());
-            return userRepository.save(updatedUser);
+            // Reject a taken email before touching the stored user
+            Optional<User> owner = userRepository.findByEmail(user.getEmail());
+            if (owner.isPresent() && !owner.get().getId().equals(id)) {
+                throw new DuplicateEmailException(user.getEmail());
+            }
+            // Readers share the stored instance, so the update goes into a copy that replaces it
+            // only if the save succeeds; a save rejected for a concurrently taken email leaves
+            // the stored user untouched and publishes nothing
+            User updatedUser = new User(id, user.getFirstName(), user.getLastName(), user.getEmail(),
+                                        user.getPhoneNumber(), user.getAddress());
+            updatedUser.setCreatedAt(existingUser.get().getCreatedAt());
+            User saved = userRepository.save(updatedUser);
+            userChangeLog.record(id);
+            userRepository.awaitDurable();
+            return saved;
         }
         throw new RuntimeException("User not found with id: " + id);
     }
@@ -64,5 +95,12 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        userChangeLog.record(id);
+        userRepository.awaitDurable();
+    }
+
+    @Override
+    public UserChanges getChanges(String epoch, long since) {
+        return userChangeLog.since(epoch, since);
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.banking.user.repository;
+
+import com.banking.journal.RepositoryJournal;
+import com.banking.user.exception.DuplicateEmailException;
+import com.banking.user.journal.UserCodec;
+import com.banking.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRepositoryTest {
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+    }
+
+    @Test
+    void concurrentSignupsWithOneEmailCreateOneUser() throws Exception {
+        List<Callable<User>> signups = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            // Case differs between callers; emails are compared case-insensitively
+            String email = i % 2 == 0 ? "same@example.com" : "Same@Example.com";
+            signups.add(() -> userRepository.save(new User(null, "Sam", "Doe", email, null, null)));
+        }
+
+        int created = 0;
+        int rejected = 0;
+        for (Future<User> signup : runConcurrently(signups)) {
+            try {
+                signup.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof DuplicateEmailException);
+                rejected++;
+            }
+        }
+
+        assertEquals(1, created);
+        assertEquals(63, rejected);
+        assertEquals(1, userRepository.count());
+        assertTrue(userRepository.findByEmail("same@example.com").isPresent());
+    }
+
+    @Test
+    void concurrentEmailChangesToOneAddressLetOneUserHaveIt() throws Exception {
+        List<Callable<User>> changes = new ArrayList<>();
+        for (long id = 1; id <= 32; id++) {
+            userRepository.save(new User(id, "User", "No" + id, "user" + id + "@example.com", null, null));
+            long userId = id;
+            changes.add(() -> userRepository.save(new User(userId, "User", "No" + userId, "wanted@example.com", null, null)));
+        }
+
+        int changed = 0;
+        for (Future<User> change : runConcurrently(changes)) {
+            try {
+                change.get();
+                changed++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof DuplicateEmailException);
+            }
+        }
+
+        assertEquals(1, changed);
+        long owner = userRepository.findByEmail("wanted@example.com").orElseThrow().getId();
+        for (long id = 1; id <= 32; id++) {
+            if (id != owner) {
+                // The losers keep their old address, and it still resolves to them
+                assertEquals(id, userRepository.findByEmail("user" + id + "@example.com").orElseThrow().getId());
+            }
+        }
+    }
+
+    @Test
+    void deletedUsersReleaseTheirEmail() {
+        User user = userRepository.save(new User(null, "Ann", "Lee", "ann@example.com", null, null));
+
+        userRepository.deleteById(user.getId());
+
+        userRepository.save(new User(null, "Ann", "Lee", "ann@example.com", null, null));
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void failedJournalAppendReleasesTheClaimedEmail(@TempDir Path directory) throws Exception {
+        RepositoryJournal<User> journal = new RepositoryJournal<>(directory, new UserCodec(), 1024 * 1024, 10);
+        journal.recover(userRepository::restore, userRepository::restoreDelete);
+        userRepository.attachJournal(journal);
+        try {
+            userRepository.save(new User(1L, "Ann", "Lee", "ann@example.com", null, null));
+
+            assertThrows(IllegalStateException.class, () -> userRepository.save(unwritable(null, "new@example.com")));
+            assertThrows(IllegalStateException.class, () -> userRepository.save(unwritable(1L, "other@example.com")));
+
+            userRepository.save(new User(null, "Bob", "Ray", "new@example.com", null, null));
+            userRepository.save(new User(null, "Cy", "Ray", "other@example.com", null, null));
+            assertEquals(1L, userRepository.findByEmail("ann@example.com").orElseThrow().getId());
+            assertEquals(3, userRepository.count());
+        } finally {
+            journal.close();
+        }
+    }
+
+    // A user the journal cannot encode, so its append fails
+    private static User unwritable(Long id, String email) {
+        return new User(id, "Broken", "Codec", email, null, null) {
+            @Override
+            public String getAddress() {
+                throw new IllegalStateException("append failed");
+            }
+        };
+    }
+
+    private static <T> List<Future<T>> runConcurrently(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            return pool.invokeAll(tasks);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.user.repository;
+
+import com.banking.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+    }
+
+    @Test
+    void closerPrefixMatchesRankFirst() {
+        index.index(1L, new User(1L, "Annabelle", "Lee", "al@example.com", null, null));
+        index.index(2L, new User(2L, "Ann", "Lee", "ann@example.com", null, null));
+        index.index(3L, new User(3L, "Anna", "Leeds", "anna@example.com", null, null));
+
+        assertEquals(List.of(2L, 3L, 1L), index.search("lee an", 10));
+    }
+
+    @Test
+    void everyTokenMustMatch() {
+        index.index(1L, new User(1L, "John", "Smith", "js@example.com", null, null));
+        index.index(2L, new User(2L, "John", "Zzyzx", "jz@example.com", null, null));
+
+        assertEquals(List.of(2L), index.search("john zz", 10));
+        assertTrue(index.search("john xy", 10).isEmpty());
+    }
+
+    @Test
+    void rareTokenIsFoundAmongManyCommonOnes() {
+        for (long id = 1; id <= 20_000; id++) {
+            index.index(id, new User(id, "John", "Smith" + id, "j" + id + "@example.com", null, null));
+        }
+        index.index(20_001L, new User(20_001L, "John", "Zzyzx", "jz@example.com", null, null));
+
+        assertEquals(List.of(20_001L), index.search("j zz", 10));
+    }
+
+    @Test
+    void equalScoresAreOrderedByIdAndCutAtTheLimit() {
+        for (long id = 5; id >= 1; id--) {
+            index.index(id, new User(id, "Maria", "Garcia", "m" + id + "@example.com", null, null));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), index.search("maria", 3));
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        index.index(1L, new User(1L, "Jane", "Doe", "jane@example.com", null, null));
+        index.index(1L, new User(1L, "Jane", "Roe", "jane@example.com", null, null));
+
+        assertTrue(index.search("doe", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("roe", 10));
+
+        index.remove(1L);
+        assertTrue(index.search("jane", 10).isEmpty());
+    }
+}